@@ -0,0 +1,67 @@
+package com.bank.system.jmh;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionStoreType;
+import com.bank.system.exceptions.InvalidAmountException;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.StatementGenerator;
+import com.bank.system.services.TransactionManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// A bank of checking accounts, each with historyLength recorded deposits. Rebuilt before every iteration, so the
+// histories that write benchmarks grow are back to historyLength when the next measurement starts.
+@State(Scope.Benchmark)
+public class BankState {
+    // Large enough that withdrawal and transfer benchmarks never run into the overdraft limit
+    static final double INITIAL_BALANCE = 1_000_000_000.0;
+
+    @Param({"100", "5000"})
+    public int accounts;
+
+    @Param({"10", "200"})
+    public int historyLength;
+
+    @Param({"OBJECTS", "COLUMNAR"})
+    public TransactionStoreType store;
+
+    public AccountManager accountManager;
+    public TransactionManager transactionManager;
+    public StatementGenerator statementGenerator;
+    public String[] accountNumbers;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws InvalidAmountException {
+        accountManager = new AccountManager();
+        cursor = 0;
+        transactionManager = new TransactionManager(accountManager, ExecutionMode.SINGLE_THREADED, store.newStore());
+        statementGenerator = new StatementGenerator(accountManager, transactionManager);
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            Account account = new CheckingAccount(
+                    new RegularCustomer("Customer " + i, 30, "555-0100", "Benchmark"), INITIAL_BALANCE);
+            transactionManager.openAccount(account, INITIAL_BALANCE);
+            accountNumbers[i] = account.getAccountNumber();
+        }
+        // The opening deposit already counts as one history entry
+        for (int round = 1; round < historyLength; round++) {
+            for (String accountNumber : accountNumbers) {
+                transactionManager.deposit(accountNumber, 1 + round % 100);
+            }
+        }
+    }
+
+    // Walks the accounts round-robin so successive calls touch different accounts
+    public String nextAccount() {
+        int index = cursor;
+        cursor = index + 1 == accountNumbers.length ? 0 : index + 1;
+        return accountNumbers[index];
+    }
+}
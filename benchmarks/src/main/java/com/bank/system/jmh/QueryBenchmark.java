@@ -0,0 +1,43 @@
+package com.bank.system.jmh;
+
+import com.bank.system.models.Account;
+import com.bank.system.models.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Read paths: account lookup, bank-wide balance, per-account history and statements
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    @Benchmark
+    public Account getAccount(BankState bank) {
+        return bank.accountManager.getAccount(bank.nextAccount());
+    }
+
+    @Benchmark
+    public double getTotalBalance(BankState bank) {
+        return bank.accountManager.getTotalBalance();
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsForAccount(BankState bank) {
+        return bank.transactionManager.getTransactionsForAccount(bank.nextAccount());
+    }
+
+    @Benchmark
+    public String generateStatement(BankState bank) {
+        return bank.statementGenerator.generateStatement(bank.nextAccount());
+    }
+}
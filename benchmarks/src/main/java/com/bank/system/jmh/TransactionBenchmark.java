@@ -0,0 +1,55 @@
+package com.bank.system.jmh;
+
+import com.bank.system.enums.TransactionResult;
+import com.bank.system.exceptions.InvalidAmountException;
+import com.bank.system.utils.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Single-operation writes through TransactionManager; each call also appends to the account's history
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBenchmark {
+    // Twice the opening balance: more than any account's balance plus overdraft, so every attempt is declined
+    private static final long DECLINED_CENTS = Money.toCents(BankState.INITIAL_BALANCE) * 2;
+
+    @Benchmark
+    public boolean deposit(BankState bank) throws InvalidAmountException {
+        return bank.transactionManager.deposit(bank.nextAccount(), 25.0);
+    }
+
+    @Benchmark
+    public boolean withdraw(BankState bank) throws InvalidAmountException {
+        return bank.transactionManager.withdraw(bank.nextAccount(), 25.0);
+    }
+
+    @Benchmark
+    public boolean transfer(BankState bank) throws InvalidAmountException {
+        return bank.transactionManager.transfer(bank.nextAccount(), bank.nextAccount(), 25.0);
+    }
+
+    // Declines through the throwing API: each one builds an exception, its stack trace and its message
+    @Benchmark
+    public boolean declinedWithdraw(BankState bank) throws InvalidAmountException {
+        try {
+            return bank.transactionManager.withdrawCents(bank.nextAccount(), DECLINED_CENTS);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public TransactionResult declinedTryWithdraw(BankState bank) {
+        return bank.transactionManager.tryWithdrawCents(bank.nextAccount(), DECLINED_CENTS);
+    }
+}
@@ -1,40 +1,67 @@
 // Java
 package com.bank.system;
 
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionStoreType;
+import com.bank.system.interfaces.TransactionStore;
+import com.bank.system.persistence.BankSnapshot;
+import com.bank.system.persistence.SnapshotTransactionStore;
+import com.bank.system.persistence.TransactionJournal;
 import com.bank.system.processes.AccountProcessHandler;
 import com.bank.system.processes.TransactionProcessHandler;
+import com.bank.system.server.BankHttpServer;
 import com.bank.system.services.AccountManager;
 import com.bank.system.services.StatementGenerator;
 import com.bank.system.services.TransactionManager;
 
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 
 import static com.bank.system.utils.ConsoleFormatter.printHeader;
 import static com.bank.system.utils.ConsoleFormatter.printSubSeparator;
 import static com.bank.system.utils.ConsoleUtil.*;
 
 public class Main {
+    // Override with -Dbank.journal=<path>, -Dbank.snapshot=<path> and -Dbank.store=objects|columnar
+    private static final String JOURNAL_PATH = System.getProperty("bank.journal", "data/bank.journal");
+    private static final String SNAPSHOT_PATH = System.getProperty("bank.snapshot", "data/bank.snapshot");
+    private static final TransactionStoreType STORE_TYPE =
+            TransactionStoreType.parse(System.getProperty("bank.store", TransactionStoreType.OBJECTS.name()));
 
     private final TransactionManager transactionManager;
     private final AccountManager accountManager;
     private final AccountProcessHandler accountProcessHandler;
     private final TransactionProcessHandler transactionProcessHandler;
     private final StatementGenerator statementGenerator;
+    private TransactionJournal journal;
+    private TransactionJournal.Position snapshotJournalPosition = TransactionJournal.Position.NONE;
 
-    private Main() {
+    private Main(ExecutionMode executionMode) {
         this.accountManager = new AccountManager();
-        this.transactionManager = new TransactionManager(accountManager);
+        this.transactionManager = new TransactionManager(accountManager, executionMode, loadSnapshot());
         this.accountProcessHandler = new AccountProcessHandler(accountManager, transactionManager);
         this.transactionProcessHandler = new TransactionProcessHandler(accountManager, transactionManager);
         this.statementGenerator = new StatementGenerator(accountManager, transactionManager);
+        registerMetrics();
     }
 
+    // Usage: Main            interactive console
+    //        Main --server [port]   headless HTTP server (default port 8080)
     public static void main(String[] args) {
-        new Main().run();
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            new Main(ExecutionMode.STRIPED_LOCKING).serve(port);
+        } else {
+            new Main(ExecutionMode.SINGLE_THREADED).run();
+        }
     }
 
     private void run() {
         displayWelcomeMessage();
-        accountProcessHandler.initializeSampleData();
+        restoreState();
         boolean running = true;
         while (running) {
             displayMainMenu();
@@ -44,6 +71,66 @@ public class Main {
         shutdown();
     }
 
+    // Serves requests concurrently until the process is stopped, then saves as the console exit does
+    private void serve(int port) {
+        restoreState();
+        BankHttpServer server = new BankHttpServer(accountManager, transactionManager, statementGenerator);
+        try {
+            server.start(port);
+        } catch (IOException e) {
+            print("Failed to start server: " + e.getMessage());
+            shutdown();
+            return;
+        }
+        printf("Serving on port %d. Press Ctrl+C to stop.%n", server.getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            shutdown();
+        }));
+    }
+
+    // Operation latencies and counts are readable with any JMX client, e.g. jconsole
+    private void registerMetrics() {
+        try {
+            transactionManager.getMetrics().register();
+        } catch (JMException e) {
+            print("Operation metrics unavailable over JMX (" + e.getMessage() + ").");
+        }
+    }
+
+    // Restores accounts from the last snapshot, if any; their histories are read when first used
+    private TransactionStore loadSnapshot() {
+        Path path = Path.of(SNAPSHOT_PATH);
+        if (Files.exists(path)) {
+            try {
+                SnapshotTransactionStore store = BankSnapshot.load(path, accountManager, STORE_TYPE.newStore());
+                snapshotJournalPosition = store.getSnapshot().getJournalPosition();
+                return store;
+            } catch (IOException e) {
+                print("Snapshot unavailable (" + e.getMessage() + "); restoring from the journal only.");
+            }
+        }
+        return STORE_TYPE.newStore();
+    }
+
+    // Replays the journal written since the snapshot; with neither, starts from the sample data
+    private void restoreState() {
+        try {
+            journal = TransactionJournal.open(Path.of(JOURNAL_PATH));
+            int records = journal.replay(accountManager, transactionManager, snapshotJournalPosition);
+            transactionManager.setJournal(journal);
+            if (accountManager.getTotalAccounts() == 0) {
+                accountProcessHandler.initializeSampleData();
+            } else {
+                printf("Restored %d accounts (snapshot plus %d journal records).%n",
+                        accountManager.getTotalAccounts(), records);
+            }
+        } catch (IOException e) {
+            print("Journal unavailable (" + e.getMessage() + "); data will be kept in memory only.");
+            accountProcessHandler.initializeSampleData();
+        }
+    }
+
     private boolean processMenuChoice(int choice) {
         return switch (choice) {
             case 1 -> {
@@ -172,7 +259,20 @@ public class Main {
 
     private void shutdown() {
         print("\nThank you for using Bank Account Management System!");
-        print("All data saved in memory. Remember to commit your latest changes to Git!");
+        if (journal != null) {
+            try {
+                // The snapshot makes the journal redundant, so the next start replays nothing
+                BankSnapshot.write(Path.of(SNAPSHOT_PATH), accountManager, transactionManager,
+                        journal.durablePosition());
+                journal.reset();
+                journal.close();
+                print("All data saved to " + SNAPSHOT_PATH + ".");
+            } catch (IOException e) {
+                print("Failed to write snapshot: " + e.getMessage() + ". The journal still holds every change.");
+            }
+        } else {
+            print("All data saved in memory. Remember to commit your latest changes to Git!");
+        }
         print("Goodbye!");
     }
 }
@@ -0,0 +1,133 @@
+package com.bank.system.benchmark;
+
+import com.bank.system.exceptions.InvalidAmountException;
+import com.bank.system.models.Account;
+import com.bank.system.models.BatchOperation;
+import com.bank.system.models.BatchResult;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.persistence.TransactionJournal;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.bank.system.utils.ConsoleFormatter.printHeader;
+import static com.bank.system.utils.ConsoleUtil.*;
+
+// Applies the same payroll-style feed (deposits and withdrawals, a few transfers) through the single-op API
+// and through processBatch, in memory and with a journal attached.
+// Usage: BatchThroughputComparison [accounts] [operations] [journaled operations]
+public class BatchThroughputComparison {
+    private static final double INITIAL_BALANCE = 1_000_000.0;
+    private static final int TRANSFER_PERCENT = 5;
+    private static final int WITHDRAWAL_PERCENT = 25;
+    private static final long SEED = 42L;
+
+    private final String[] accountNumbers;
+    private final AccountManager accountManager = new AccountManager();
+
+    private BatchThroughputComparison(int accountCount) {
+        this.accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = new CheckingAccount(
+                    new RegularCustomer("Customer " + i, 30, "555-0100", "Benchmark"), INITIAL_BALANCE);
+            accountManager.addAccount(account);
+            accountNumbers[i] = account.getAccountNumber();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int journaledOperations = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+        BatchThroughputComparison comparison = new BatchThroughputComparison(accounts);
+
+        printHeader("THROUGHPUT: SINGLE OPERATIONS VS BATCH");
+        printf("Accounts: %,d | Operations: %,d (journaled: %,d)%n", accounts, operations, journaledOperations);
+        comparison.compare("in memory", operations, false);
+        comparison.compare("journaled", journaledOperations, true);
+    }
+
+    private void compare(String label, int operationCount, boolean journaled) throws Exception {
+        List<BatchOperation> plan = createPlan(operationCount);
+        double looped = measure(label + ", loop", plan, journaled, false);
+        double batched = measure(label + ", batch", plan, journaled, true);
+        printf("Speed-up (%s): %.2fx%n%n", label, batched / looped);
+    }
+
+    // Returns operations per second
+    private double measure(String label, List<BatchOperation> plan, boolean journaled, boolean batched)
+            throws IOException {
+        TransactionManager transactionManager = new TransactionManager(accountManager);
+        Path directory = journaled ? Files.createTempDirectory("bank-batch") : null;
+        TransactionJournal journal = journaled ? TransactionJournal.open(directory.resolve("bank.journal")) : null;
+        transactionManager.setJournal(journal);
+        double totalBefore = accountManager.getTotalBalance();
+
+        long start = System.nanoTime();
+        int rejected = batched ? runBatch(transactionManager, plan) : runLoop(transactionManager, plan);
+        long elapsed = System.nanoTime() - start;
+
+        if (journal != null) {
+            journal.close();
+            Files.deleteIfExists(journal.getPath());
+            Files.deleteIfExists(directory);
+        }
+        double opsPerSecond = plan.size() / (elapsed / 1_000_000_000.0);
+        printf("%-22s | %9.1f ms | %,14.0f ops/s | rejected: %d | net change: %,.2f%n",
+                label, elapsed / 1_000_000.0, opsPerSecond, rejected,
+                accountManager.getTotalBalance() - totalBefore);
+        return opsPerSecond;
+    }
+
+    private int runLoop(TransactionManager transactionManager, List<BatchOperation> plan) {
+        int rejected = 0;
+        for (BatchOperation operation : plan) {
+            try {
+                switch (operation.type()) {
+                    case DEPOSIT -> transactionManager.depositCents(operation.accountNumber(), operation.amountCents());
+                    case WITHDRAWAL -> transactionManager.withdrawCents(operation.accountNumber(), operation.amountCents());
+                    default -> transactionManager.transferCents(operation.accountNumber(),
+                            operation.targetAccountNumber(), operation.amountCents());
+                }
+            } catch (InvalidAmountException | RuntimeException e) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    private int runBatch(TransactionManager transactionManager, List<BatchOperation> plan) {
+        int rejected = 0;
+        for (BatchResult result : transactionManager.processBatch(plan)) {
+            if (!result.success()) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    private List<BatchOperation> createPlan(int operationCount) {
+        Random random = new Random(SEED);
+        List<BatchOperation> plan = new ArrayList<>(operationCount);
+        for (int i = 0; i < operationCount; i++) {
+            String account = accountNumbers[random.nextInt(accountNumbers.length)];
+            double amount = 1 + random.nextInt(100);
+            int roll = random.nextInt(100);
+            if (roll < TRANSFER_PERCENT) {
+                plan.add(BatchOperation.transfer(account, accountNumbers[random.nextInt(accountNumbers.length)], amount));
+            } else if (roll < TRANSFER_PERCENT + WITHDRAWAL_PERCENT) {
+                plan.add(BatchOperation.withdrawal(account, amount));
+            } else {
+                plan.add(BatchOperation.deposit(account, amount));
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bank.system.benchmark;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.exceptions.InvalidAmountException;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bank.system.utils.ConsoleFormatter.printHeader;
+import static com.bank.system.utils.ConsoleUtil.*;
+
+// Runs the same deposit/transfer mix single-threaded and with striped locking on all cores.
+// Usage: ConcurrentThroughputComparison [accounts] [operations]
+public class ConcurrentThroughputComparison {
+    private static final double INITIAL_BALANCE = 1_000_000.0;
+    private static final int TRANSFER_PERCENT = 30;
+    private static final long SEED = 42L;
+
+    private final int accountCount;
+    private final int operationCount;
+    // Pre-generated plan so both runs execute identical work: source, target (-1 for deposits), amount
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] amounts;
+
+    private ConcurrentThroughputComparison(int accountCount, int operationCount) {
+        this.accountCount = accountCount;
+        this.operationCount = operationCount;
+        this.sources = new int[operationCount];
+        this.targets = new int[operationCount];
+        this.amounts = new double[operationCount];
+        Random random = new Random(SEED);
+        for (int i = 0; i < operationCount; i++) {
+            sources[i] = random.nextInt(accountCount);
+            targets[i] = random.nextInt(100) < TRANSFER_PERCENT ? random.nextInt(accountCount) : -1;
+            amounts[i] = 1 + random.nextInt(100);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        new ConcurrentThroughputComparison(accounts, operations).run();
+    }
+
+    private void run() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        printHeader("THROUGHPUT: SINGLE-THREADED VS STRIPED LOCKING");
+        printf("Accounts: %,d | Operations: %,d | Threads: %d%n", accountCount, operationCount, threads);
+
+        double single = measure(ExecutionMode.SINGLE_THREADED, 1);
+        double striped = measure(ExecutionMode.STRIPED_LOCKING, threads);
+
+        printf("%nSpeed-up: %.2fx%n", striped / single);
+    }
+
+    // Returns operations per second
+    private double measure(ExecutionMode mode, int threads) throws Exception {
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager, mode);
+        String[] accountNumbers = createAccounts(accountManager);
+
+        long start = System.nanoTime();
+        if (threads == 1) {
+            runSlice(transactionManager, accountNumbers, 0, operationCount);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                int sliceSize = (operationCount + threads - 1) / threads;
+                for (int from = 0; from < operationCount; from += sliceSize) {
+                    int sliceStart = from;
+                    int sliceEnd = Math.min(operationCount, from + sliceSize);
+                    futures.add(executor.submit(() -> {
+                        runSlice(transactionManager, accountNumbers, sliceStart, sliceEnd);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double opsPerSecond = operationCount / (elapsed / 1_000_000_000.0);
+        printf("%-16s | %8.1f ms | %,14.0f ops/s | balance check: %s%n",
+                mode, elapsed / 1_000_000.0, opsPerSecond,
+                balancesConsistent(accountManager) ? "OK" : "MISMATCH");
+        return opsPerSecond;
+    }
+
+    private String[] createAccounts(AccountManager accountManager) {
+        String[] accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = new CheckingAccount(
+                    new RegularCustomer("Customer " + i, 30, "555-0100", "Benchmark"), INITIAL_BALANCE);
+            accountManager.addAccount(account);
+            accountNumbers[i] = account.getAccountNumber();
+        }
+        return accountNumbers;
+    }
+
+    private void runSlice(TransactionManager transactionManager, String[] accountNumbers, int from, int to)
+            throws InvalidAmountException {
+        for (int i = from; i < to; i++) {
+            String source = accountNumbers[sources[i]];
+            if (targets[i] < 0) {
+                transactionManager.deposit(source, amounts[i]);
+            } else {
+                transactionManager.transfer(source, accountNumbers[targets[i]], amounts[i]);
+            }
+        }
+    }
+
+    // Transfers conserve money, so the bank total must equal the opening balances plus all deposits
+    private boolean balancesConsistent(AccountManager accountManager) {
+        double expected = INITIAL_BALANCE * accountCount;
+        for (int i = 0; i < operationCount; i++) {
+            if (targets[i] < 0) {
+                expected += amounts[i];
+            }
+        }
+        return Math.abs(accountManager.getTotalBalance() - expected) < 0.01;
+    }
+}
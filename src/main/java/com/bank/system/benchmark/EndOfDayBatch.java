@@ -0,0 +1,99 @@
+package com.bank.system.benchmark;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.Customer;
+import com.bank.system.models.PostingRunReport;
+import com.bank.system.models.PremiumCustomer;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.models.SavingsAccount;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.InterestAccrualEngine;
+import com.bank.system.services.MonthlyFeeEngine;
+import com.bank.system.services.TransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.bank.system.utils.ConsoleFormatter.printHeader;
+import static com.bank.system.utils.ConsoleUtil.*;
+
+// Builds a large bank and runs the end-of-day interest batch and the monthly fee assessment over it, printing
+// progress as chunks finish. Each run is then repeated from its checkpoint to show a finished run is not repeated.
+// Usage: EndOfDayBatch [accounts=1000000] [threads=<cores>] [chunk=10000] [seed=42]
+public class EndOfDayBatch {
+    private static final int PROGRESS_STEPS = 10;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int accountCount = Integer.parseInt(options.getOrDefault("accounts", "1000000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int chunkSize = Integer.parseInt(options.getOrDefault("chunk", "10000"));
+        Random random = new Random(Long.parseLong(options.getOrDefault("seed", "42")));
+
+        printHeader("END-OF-DAY BATCH");
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager, ExecutionMode.STRIPED_LOCKING);
+        for (int i = 0; i < accountCount; i++) {
+            Customer customer = random.nextInt(5) == 0
+                    ? new PremiumCustomer("Customer " + i, 40, "555-0100", "Batch")
+                    : new RegularCustomer("Customer " + i, 40, "555-0100", "Batch");
+            double balance = 500 + random.nextInt(50_000);
+            // A few checking accounts sit at the overdraft limit, so their fee is rejected
+            Account account = random.nextBoolean()
+                    ? new SavingsAccount(customer, balance)
+                    : new CheckingAccount(customer, random.nextInt(100) == 0 ? -500 : balance);
+            accountManager.addAccount(account);
+        }
+        printf("Accounts: %,d (savings: %,d, checking: %,d) | Threads: %d | Chunk size: %,d%n", accountCount,
+                accountManager.getAccountCount("Savings"), accountManager.getAccountCount("Checking"),
+                threads, chunkSize);
+
+        Path interestCheckpoint = Files.createTempFile("end-of-day-interest", ".checkpoint");
+        Path feeCheckpoint = Files.createTempFile("end-of-day-fees", ".checkpoint");
+        try {
+            LocalDate businessDate = LocalDate.now();
+            InterestAccrualEngine interest =
+                    new InterestAccrualEngine(accountManager, transactionManager, threads, chunkSize);
+            report("Interest", interest.accrue(businessDate, interestCheckpoint, EndOfDayBatch::printProgress));
+            report("Interest, rerun", interest.accrue(businessDate, interestCheckpoint, null));
+
+            YearMonth month = YearMonth.from(businessDate);
+            MonthlyFeeEngine fees = new MonthlyFeeEngine(accountManager, transactionManager, threads, chunkSize);
+            report("Fees", fees.assess(month, feeCheckpoint, EndOfDayBatch::printProgress));
+            report("Fees, rerun", fees.assess(month, feeCheckpoint, null));
+        } finally {
+            Files.deleteIfExists(interestCheckpoint);
+            Files.deleteIfExists(feeCheckpoint);
+        }
+    }
+
+    // Prints roughly every tenth of the run
+    private static void printProgress(PostingRunReport progress) {
+        int step = Math.max(1, progress.chunkCount() / PROGRESS_STEPS);
+        if (progress.chunksCompleted() % step == 0 || progress.isComplete()) {
+            printf("  %,d / %,d chunks | %,d postings%n",
+                    progress.chunksCompleted(), progress.chunkCount(), progress.postings());
+        }
+    }
+
+    private static void report(String label, PostingRunReport report) {
+        printf("%-16s %,d accounts | %,d postings | %,d rejected | $%,.2f | %.1f ms | %,.0f accounts/s%n",
+                label + ":", report.accountsProcessed(), report.postings(), report.rejected(), report.total(),
+                report.elapsedNanos() / 1_000_000.0, report.accountsPerSecond());
+    }
+}
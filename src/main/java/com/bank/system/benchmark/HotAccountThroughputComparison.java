@@ -0,0 +1,85 @@
+package com.bank.system.benchmark;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.exceptions.InvalidAmountException;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bank.system.utils.ConsoleFormatter.printHeader;
+import static com.bank.system.utils.ConsoleUtil.*;
+
+// Many threads alternating deposits and withdrawals on one account: striped locking vs lock-free balances.
+// Usage: HotAccountThroughputComparison [threads] [operationsPerThread]
+public class HotAccountThroughputComparison {
+    private static final double INITIAL_BALANCE = 1_000_000.0;
+    private static final double AMOUNT = 10.0;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int operationsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        printHeader("THROUGHPUT: HOT ACCOUNT, STRIPED LOCKING VS LOCK-FREE");
+        printf("Threads: %d | Operations per thread: %,d%n", threads, operationsPerThread);
+
+        double striped = measure(ExecutionMode.STRIPED_LOCKING, threads, operationsPerThread);
+        double lockFree = measure(ExecutionMode.LOCK_FREE, threads, operationsPerThread);
+
+        printf("%nSpeed-up: %.2fx%n", lockFree / striped);
+    }
+
+    // Returns operations per second
+    private static double measure(ExecutionMode mode, int threads, int operationsPerThread) throws Exception {
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager, mode);
+        Account account = new CheckingAccount(
+                new RegularCustomer("Hot Account", 30, "555-0100", "Benchmark"), INITIAL_BALANCE);
+        accountManager.addAccount(account);
+        String accountNumber = account.getAccountNumber();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    runOperations(transactionManager, accountNumber, operationsPerThread);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long operations = (long) threads * operationsPerThread;
+        double opsPerSecond = operations / (elapsed / 1_000_000_000.0);
+        // Every thread deposits and withdraws the same amount equally often, so the balance must be unchanged
+        printf("%-16s | %8.1f ms | %,14.0f ops/s | balance check: %s%n",
+                mode, elapsed / 1_000_000.0, opsPerSecond,
+                Math.abs(account.getBalance() - INITIAL_BALANCE) < 0.01 ? "OK" : "MISMATCH");
+        return opsPerSecond;
+    }
+
+    private static void runOperations(TransactionManager transactionManager, String accountNumber, int operations)
+            throws InvalidAmountException {
+        for (int i = 0; i < operations; i++) {
+            if ((i & 1) == 0) {
+                transactionManager.deposit(accountNumber, AMOUNT);
+            } else {
+                transactionManager.withdraw(accountNumber, AMOUNT);
+            }
+        }
+    }
+}
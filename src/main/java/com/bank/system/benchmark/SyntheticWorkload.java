@@ -0,0 +1,252 @@
+package com.bank.system.benchmark;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionResult;
+import com.bank.system.enums.TransactionStoreType;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.Customer;
+import com.bank.system.models.PremiumCustomer;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.models.SavingsAccount;
+import com.bank.system.processes.AccountProcessHandler;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bank.system.utils.ConsoleFormatter.printHeader;
+import static com.bank.system.utils.ConsoleUtil.*;
+
+// Builds a production-sized bank and drives a seeded stream of deposits, withdrawals and transfers through
+// TransactionManager, then reports throughput and latency percentiles. Account popularity follows a Zipf
+// distribution: skew=0 is uniform, skew=1 concentrates most traffic on a few hot accounts.
+// Usage: SyntheticWorkload [accounts=10000] [operations=1000000] [threads=<cores>] [skew=1.0]
+//                          [premium=20] [checking=50] [withdrawals=30] [transfers=20] [seed=42]
+//                          [mode=STRIPED_LOCKING] [store=OBJECTS]
+public class SyntheticWorkload {
+    private static final byte DEPOSIT = 0;
+    private static final byte WITHDRAWAL = 1;
+    private static final byte TRANSFER = 2;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9"};
+
+    private final int accountCount;
+    private final int operationCount;
+    private final int threads;
+    private final double skew;
+    private final int premiumPercent;
+    private final int checkingPercent;
+    private final int withdrawalPercent;
+    private final int transferPercent;
+    private final long seed;
+    private final ExecutionMode mode;
+    private final TransactionStoreType storeType;
+
+    // Pre-generated plan: operation kind, source and target account index (-1 if none), amount
+    private byte[] kinds;
+    private int[] sources;
+    private int[] targets;
+    private long[] amountsCents;
+
+    private SyntheticWorkload(Map<String, String> options) {
+        this.accountCount = Integer.parseInt(options.getOrDefault("accounts", "10000"));
+        this.operationCount = Integer.parseInt(options.getOrDefault("operations", "1000000"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.skew = Double.parseDouble(options.getOrDefault("skew", "1.0"));
+        this.premiumPercent = Integer.parseInt(options.getOrDefault("premium", "20"));
+        this.checkingPercent = Integer.parseInt(options.getOrDefault("checking", "50"));
+        this.withdrawalPercent = Integer.parseInt(options.getOrDefault("withdrawals", "30"));
+        this.transferPercent = Integer.parseInt(options.getOrDefault("transfers", "20"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.mode = ExecutionMode.valueOf(options.getOrDefault("mode", ExecutionMode.STRIPED_LOCKING.name()));
+        this.storeType = TransactionStoreType.parse(options.getOrDefault("store", TransactionStoreType.OBJECTS.name()));
+        // A single-threaded manager takes no locks, so more than one thread would corrupt its state
+        if (mode == ExecutionMode.SINGLE_THREADED && threads > 1) {
+            throw new IllegalArgumentException("mode=SINGLE_THREADED requires threads=1, got threads=" + threads);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new SyntheticWorkload(options).run();
+    }
+
+    private void run() throws Exception {
+        printHeader("SYNTHETIC WORKLOAD");
+        printf("Accounts: %,d | Operations: %,d | Threads: %d | Mode: %s | Store: %s | Skew: %.2f | Seed: %d%n",
+                accountCount, operationCount, threads, mode, storeType, skew, seed);
+
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager, mode, storeType.newStore());
+        Random random = new Random(seed);
+        String[] accountNumbers = createAccounts(transactionManager, random);
+        generatePlan(random);
+
+        long[] latencies = new long[operationCount];
+        int rejected = 0;
+        long start = System.nanoTime();
+        if (threads == 1) {
+            rejected = runSlice(transactionManager, accountNumbers, latencies, 0, operationCount);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Integer>> futures = new ArrayList<>();
+                int sliceSize = (operationCount + threads - 1) / threads;
+                for (int from = 0; from < operationCount; from += sliceSize) {
+                    int sliceStart = from;
+                    int sliceEnd = Math.min(operationCount, from + sliceSize);
+                    futures.add(executor.submit(() ->
+                            runSlice(transactionManager, accountNumbers, latencies, sliceStart, sliceEnd)));
+                }
+                for (Future<Integer> future : futures) {
+                    rejected += future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        report(elapsed, latencies, rejected, transactionManager);
+    }
+
+    private String[] createAccounts(TransactionManager transactionManager, Random random) {
+        String[] accountNumbers = new String[accountCount];
+        int premium = 0;
+        int checking = 0;
+        for (int i = 0; i < accountCount; i++) {
+            String name = "Customer " + i;
+            int age = 18 + random.nextInt(70);
+            Customer customer = random.nextInt(100) < premiumPercent
+                    ? new PremiumCustomer(name, age, "555-0100", "Synthetic")
+                    : new RegularCustomer(name, age, "555-0100", "Synthetic");
+            // Opening deposits between the minimum and twenty times the minimum
+            double minimum = AccountProcessHandler.minimumInitialDeposit(customer);
+            double deposit = minimum * (1 + random.nextInt(20));
+            Account account = random.nextInt(100) < checkingPercent
+                    ? new CheckingAccount(customer, deposit)
+                    : new SavingsAccount(customer, deposit);
+            transactionManager.openAccount(account, deposit);
+            accountNumbers[i] = account.getAccountNumber();
+            premium += customer instanceof PremiumCustomer ? 1 : 0;
+            checking += account instanceof CheckingAccount ? 1 : 0;
+        }
+        printf("Created %,d premium / %,d regular customers, %,d checking / %,d savings accounts%n",
+                premium, accountCount - premium, checking, accountCount - checking);
+        return accountNumbers;
+    }
+
+    private void generatePlan(Random random) {
+        kinds = new byte[operationCount];
+        sources = new int[operationCount];
+        targets = new int[operationCount];
+        amountsCents = new long[operationCount];
+        AccountPicker picker = new AccountPicker(accountCount, skew, random);
+        for (int i = 0; i < operationCount; i++) {
+            int roll = random.nextInt(100);
+            sources[i] = picker.next(random);
+            targets[i] = -1;
+            if (roll < transferPercent) {
+                kinds[i] = TRANSFER;
+                targets[i] = picker.next(random);
+                amountsCents[i] = 100L * (1 + random.nextInt(200));
+            } else if (roll < transferPercent + withdrawalPercent) {
+                kinds[i] = WITHDRAWAL;
+                amountsCents[i] = 100L * (1 + random.nextInt(300));
+            } else {
+                kinds[i] = DEPOSIT;
+                amountsCents[i] = 100L * (1 + random.nextInt(500));
+            }
+        }
+    }
+
+    // Returns the number of operations rejected by the balance rules
+    private int runSlice(TransactionManager transactionManager, String[] accountNumbers, long[] latencies,
+                         int from, int to) {
+        int rejected = 0;
+        for (int i = from; i < to; i++) {
+            String source = accountNumbers[sources[i]];
+            long started = System.nanoTime();
+            TransactionResult result = switch (kinds[i]) {
+                case DEPOSIT -> transactionManager.tryDepositCents(source, amountsCents[i]);
+                case WITHDRAWAL -> transactionManager.tryWithdrawCents(source, amountsCents[i]);
+                default -> transactionManager.tryTransferCents(source, accountNumbers[targets[i]], amountsCents[i]);
+            };
+            latencies[i] = System.nanoTime() - started;
+            if (result != TransactionResult.OK) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    private void report(long elapsed, long[] latencies, int rejected, TransactionManager transactionManager) {
+        Arrays.sort(latencies);
+        printf("%nElapsed: %.1f ms | Throughput: %,.0f ops/s | Rejected: %,d | Transactions recorded: %,d%n",
+                elapsed / 1_000_000.0, operationCount / (elapsed / 1_000_000_000.0), rejected,
+                transactionManager.getTotalTransactions());
+        StringBuilder line = new StringBuilder("Latency (us):");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            int index = (int) Math.ceil(PERCENTILES[i] / 100 * latencies.length) - 1;
+            line.append(' ').append(PERCENTILE_LABELS[i]).append('=')
+                    .append(formatMicros(latencies[Math.max(0, Math.min(latencies.length - 1, index))]));
+        }
+        line.append(" max=").append(formatMicros(latencies[latencies.length - 1]));
+        print(line.toString());
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1_000.0);
+    }
+
+    // Zipf sampling over accounts; ranks are shuffled so hot accounts are spread over the lock stripes
+    private static final class AccountPicker {
+        private final double[] cumulative;
+        private final int[] accountForRank;
+
+        private AccountPicker(int accountCount, double skew, Random random) {
+            cumulative = new double[accountCount];
+            double total = 0;
+            for (int rank = 0; rank < accountCount; rank++) {
+                total += 1.0 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < accountCount; rank++) {
+                cumulative[rank] /= total;
+            }
+            accountForRank = new int[accountCount];
+            for (int i = 0; i < accountCount; i++) {
+                accountForRank[i] = i;
+            }
+            for (int i = accountCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = accountForRank[i];
+                accountForRank[i] = accountForRank[j];
+                accountForRank[j] = swap;
+            }
+        }
+
+        private int next(Random random) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            rank = rank < 0 ? -rank - 1 : rank;
+            return accountForRank[Math.min(rank, accountForRank.length - 1)];
+        }
+    }
+}
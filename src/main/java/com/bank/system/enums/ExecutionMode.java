@@ -0,0 +1,7 @@
+package com.bank.system.enums;
+
+public enum ExecutionMode {
+    SINGLE_THREADED,   // no locking; callers use the manager from one thread
+    STRIPED_LOCKING,   // per-account striped locks; independent accounts run in parallel
+    LOCK_FREE          // deposits/withdrawals update balances by compare-and-set; the lock only guards the history append
+}
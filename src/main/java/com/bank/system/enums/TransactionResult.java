@@ -0,0 +1,26 @@
+package com.bank.system.enums;
+
+// Outcome of a balance operation, returned rather than thrown on hot paths. Each code carries a fixed message;
+// Account.describeResult builds the detailed one only when a decline is actually shown.
+public enum TransactionResult {
+    OK("Transaction completed"),
+    INSUFFICIENT_FUNDS("Insufficient funds"),
+    OVERDRAFT_EXCEEDED("Overdraft limit exceeded"),
+    INVALID_AMOUNT("Amount must be greater than 0"),
+    ACCOUNT_NOT_FOUND("Account not found"), // only from TransactionManager, which looks the account up
+    UNSUPPORTED_TYPE("Unsupported transaction type");
+
+    private final String message;
+
+    TransactionResult(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isOk() {
+        return this == OK;
+    }
+}
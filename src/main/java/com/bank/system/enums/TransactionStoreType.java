@@ -0,0 +1,22 @@
+package com.bank.system.enums;
+
+import com.bank.system.interfaces.TransactionStore;
+import com.bank.system.services.ColumnarTransactionStore;
+import com.bank.system.services.ObjectTransactionStore;
+
+public enum TransactionStoreType {
+    OBJECTS,    // one Transaction object per entry, indexed per account and by sequence
+    COLUMNAR;   // primitive columns per account; Transaction objects are built only when read
+
+    public TransactionStore newStore() {
+        return switch (this) {
+            case OBJECTS -> new ObjectTransactionStore();
+            case COLUMNAR -> new ColumnarTransactionStore();
+        };
+    }
+
+    // Accepts the constant name in any case, e.g. "columnar"
+    public static TransactionStoreType parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -4,5 +4,28 @@ public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
     TRANSFER,
-    RECEIVE
+    RECEIVE,
+    INTEREST, // posted by InterestAccrualEngine; new types go last, ordinals are persisted
+    FEE; // posted by MonthlyFeeEngine
+
+    private static final TransactionType[] VALUES = values();
+
+    // Transactions store their type by name; match it case-insensitively, null when unknown
+    public static TransactionType fromName(String name) {
+        for (TransactionType type : VALUES) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    // Cached values(), indexed by ordinal
+    public static TransactionType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
 }
@@ -0,0 +1,23 @@
+package com.bank.system.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// An AccountManager lookup by account number. Disabled by default: it fires on every operation, so enable it
+// in the recording settings when looking into lookups specifically.
+@Name("com.bank.system.AccountLookup")
+@Label("Account Lookup")
+@Category({"Bank", "Accounts"})
+@Enabled(false)
+@StackTrace(false)
+public class AccountLookupEvent extends Event {
+    @Label("Account Number")
+    public String accountNumber;
+
+    @Label("Found")
+    public boolean found;
+}
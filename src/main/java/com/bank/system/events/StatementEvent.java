@@ -0,0 +1,25 @@
+package com.bank.system.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// A statement generated or streamed by StatementGenerator
+@Name("com.bank.system.Statement")
+@Label("Statement")
+@Category({"Bank", "Statements"})
+public class StatementEvent extends Event {
+    @Label("Account Number")
+    public String accountNumber;
+
+    @Label("Transactions")
+    public int transactionCount;
+
+    @Label("Bytes Produced")
+    @Description("UTF-8 size of the statement text")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+}
@@ -0,0 +1,31 @@
+package com.bank.system.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One deposit, withdrawal or transfer applied by TransactionManager, timed from the call until it is durable.
+// Fields are only filled in when a recording wants the event, so an idle recorder costs nothing.
+@Name("com.bank.system.Transaction")
+@Label("Transaction")
+@Category({"Bank", "Transactions"})
+@Description("A deposit, withdrawal or transfer and its outcome")
+public class TransactionEvent extends Event {
+    @Label("Type")
+    public String type;
+
+    @Label("Account Number")
+    public String accountNumber;
+
+    @Label("Target Account Number")
+    @Description("Destination of a transfer")
+    public String targetAccountNumber;
+
+    @Label("Amount (cents)")
+    public long amountCents;
+
+    @Label("Outcome")
+    public String outcome;
+}
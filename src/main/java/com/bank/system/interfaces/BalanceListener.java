@@ -0,0 +1,8 @@
+package com.bank.system.interfaces;
+
+import com.bank.system.models.Account;
+
+// Told about every change to the balance of an account it is registered on
+public interface BalanceListener {
+    void balanceChanged(Account account, long deltaCents);
+}
@@ -0,0 +1,29 @@
+package com.bank.system.interfaces;
+
+import java.util.Map;
+
+// JMX view of OperationMetrics. Every figure covers the current interval, which reset() ends; maps are keyed by
+// transaction type name, plus STATEMENT for statement generation.
+public interface OperationMetricsMXBean {
+    long getIntervalStartEpochMillis();
+
+    Map<String, Long> getCompletedCounts();
+
+    // Operations the balance rules turned down
+    Map<String, Long> getDeclinedCounts();
+
+    // Completed operations per second since the interval started
+    Map<String, Double> getThroughputPerSecond();
+
+    Map<String, Double> getMeanLatencyMicros();
+
+    Map<String, Double> getP50LatencyMicros();
+
+    Map<String, Double> getP99LatencyMicros();
+
+    Map<String, Double> getP999LatencyMicros();
+
+    Map<String, Double> getMaxLatencyMicros();
+
+    void reset();
+}
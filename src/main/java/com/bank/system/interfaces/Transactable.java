@@ -1,9 +1,13 @@
 package com.bank.system.interfaces;
 
+import com.bank.system.enums.TransactionResult;
 import com.bank.system.enums.TransactionType;
 
 public interface Transactable {
     // type: "DEPOSIT" or "WITHDRAWAL"
     boolean  processTransaction(double amount, TransactionType type);
 
+    // Like processTransaction, but a decline comes back as a result code instead of an exception
+    TransactionResult tryProcessTransaction(double amount, TransactionType type);
+
 }
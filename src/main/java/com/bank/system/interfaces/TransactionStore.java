@@ -0,0 +1,85 @@
+package com.bank.system.interfaces;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.models.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Where TransactionManager keeps recorded transactions and their per-account running totals.
+// In concurrent modes, per-account calls arrive holding that account's stripe lock, and bank-wide reads
+// (getTransactionsBetween, getAllTransactions) holding every stripe.
+public interface TransactionStore {
+    void append(Transaction transaction);
+
+    // Null when no transaction has this id
+    Transaction find(String transactionId);
+
+    boolean remove(Transaction transaction);
+
+    // The account's transactions in append order
+    List<Transaction> getTransactionsForAccount(String accountNumber);
+
+    // Up to limit of the account's transactions starting at position fromIndex, in append order
+    default List<Transaction> getTransactionsForAccount(String accountNumber, int fromIndex, int limit) {
+        List<Transaction> transactions = getTransactionsForAccount(accountNumber);
+        int from = Math.min(Math.max(fromIndex, 0), transactions.size());
+        return new ArrayList<>(transactions.subList(from, (int) Math.min(transactions.size(), (long) from + limit)));
+    }
+
+    // Position of the account's first transaction at or after epochMillis, or the history size if there is none.
+    // New transactions are never stamped before the account's last one, so histories are in time order and
+    // implementations binary-search them.
+    default int firstIndexAtOrAfter(String accountNumber, long epochMillis) {
+        List<Transaction> transactions = getTransactionsForAccount(accountNumber);
+        int index = 0;
+        while (index < transactions.size() && transactions.get(index).getEpochMillis() < epochMillis) {
+            index++;
+        }
+        return index;
+    }
+
+    // Every account's transactions with a time in [fromEpochMillis, toEpochMillis), oldest first
+    default List<Transaction> getTransactionsBetween(long fromEpochMillis, long toEpochMillis) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Transaction transaction : getAllTransactions()) {
+            if (transaction.getEpochMillis() >= fromEpochMillis && transaction.getEpochMillis() < toEpochMillis) {
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    Transaction getLastTransaction(String accountNumber);
+
+    // Time of the account's newest transaction, or Long.MIN_VALUE when it has none
+    default long getLastEpochMillis(String accountNumber) {
+        Transaction last = getLastTransaction(accountNumber);
+        return last == null ? Long.MIN_VALUE : last.getEpochMillis();
+    }
+
+    int getTransactionCount(String accountNumber);
+
+    int getTransactionCount(String accountNumber, TransactionType type);
+
+    long getTotalAmountCents(String accountNumber, TransactionType type);
+
+    // Every type's total at once, indexed by TransactionType ordinal
+    default long[] getTotalAmountsCents(String accountNumber) {
+        long[] totals = new long[TransactionType.count()];
+        for (TransactionType type : TransactionType.values()) {
+            totals[type.ordinal()] = getTotalAmountCents(accountNumber, type);
+        }
+        return totals;
+    }
+
+    // All transactions, oldest first by Transaction.CHRONOLOGICAL
+    List<Transaction> getAllTransactions();
+
+    int size();
+
+    // Whether appended Transaction objects are kept; if not, accounts should not hold them either
+    default boolean retainsTransactionObjects() {
+        return true;
+    }
+}
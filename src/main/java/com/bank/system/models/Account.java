@@ -1,33 +1,79 @@
 package com.bank.system.models;
+import com.bank.system.enums.TransactionResult;
+import com.bank.system.enums.TransactionType;
 import com.bank.system.exceptions.InsufficientFundsException;
 import com.bank.system.exceptions.InvalidAmountException;
 import com.bank.system.exceptions.OverdraftExceededException;
+import com.bank.system.interfaces.BalanceListener;
 import com.bank.system.interfaces.Transactable;
+import com.bank.system.utils.IdAllocator;
+import com.bank.system.utils.Money;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 
 public abstract class Account implements Transactable {
     private final String accountNumber;
     private final Customer customer;
-    private double balance;
+    // Available balance: the ledger balance less whatever pending holds have set aside
+    private volatile long balanceCents;
+    private volatile long heldCents;
+    private volatile BalanceListener balanceListener; // null until the account is registered with a bank
+    // The balance as the listener has been told it, or DETACHED while no listener is told anything. Every
+    // notification first adds its delta here, so a detach knows exactly which changes the listener has counted.
+    private volatile long reportedCents = DETACHED;
     private final String status;
     protected final List<Transaction> transactions;
-    private static final AtomicInteger ACCOUNT_COUNTER = new AtomicInteger(0);
+    private static final String ACCOUNT_NUMBER_PREFIX = "ACC";
+    private static final IdAllocator ACCOUNT_IDS = new IdAllocator();
+    private static final VarHandle BALANCE;
+    private static final VarHandle HELD;
+    private static final VarHandle REPORTED;
+    private static final long DETACHED = Long.MIN_VALUE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BALANCE = lookup.findVarHandle(Account.class, "balanceCents", long.class);
+            HELD = lookup.findVarHandle(Account.class, "heldCents", long.class);
+            REPORTED = lookup.findVarHandle(Account.class, "reportedCents", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
      protected Account(Customer customer, double initialDeposit) {
+        this(generateAccountNumber(), customer, initialDeposit, false);
+    }
+
+    // Restores an account under a number it was given earlier, e.g. when replaying a journal
+    protected Account(String accountNumber, Customer customer, double initialDeposit) {
+        this(accountNumber, customer, initialDeposit, true);
+    }
+
+    private Account(String accountNumber, Customer customer, double initialDeposit, boolean restored) {
         this.customer = customer;
-        this.balance = initialDeposit;
+        this.balanceCents = Money.toCents(initialDeposit);
         this.status = "Active";
-        this.accountNumber = generateAccountNumber();
-        this.transactions = new ArrayList<>();
+        this.accountNumber = accountNumber;
+        this.transactions = Collections.synchronizedList(new ArrayList<>());
+        if (restored) {
+            reserveAccountNumber(accountNumber);
+        }
     }
 
+    // Rendered right away: it is the key every lookup uses
     private static String generateAccountNumber() {
-        return String.format("ACC%03d", ACCOUNT_COUNTER.incrementAndGet());
+        return IdAllocator.render(ACCOUNT_NUMBER_PREFIX, ACCOUNT_IDS.next());
+    }
+
+    // Keeps newly generated numbers from colliding with a restored one
+    private static void reserveAccountNumber(String accountNumber) {
+        ACCOUNT_IDS.reserve(IdAllocator.parse(ACCOUNT_NUMBER_PREFIX, accountNumber));
     }
 
     // Abstract methods to be implemented by subclasses
@@ -41,7 +87,182 @@ public abstract class Account implements Transactable {
     public abstract boolean withdraw(double amount) throws InsufficientFundsException, InvalidAmountException, OverdraftExceededException;
     public abstract boolean deposit(double amount) throws InvalidAmountException;
 
-    // Withdraw method - to be overridden by subclasses
+    // Withdraws atomically and returns the balance in cents this withdrawal produced
+    public abstract long withdrawCents(long amountCents) throws InsufficientFundsException, InvalidAmountException, OverdraftExceededException;
+
+    // Deposits atomically and returns the balance in cents this deposit produced
+    public long depositCents(long amountCents) throws InvalidAmountException {
+        if (amountCents <= 0) {
+            throw new InvalidAmountException("Deposit amount must be greater than 0");
+        }
+        return credit(amountCents);
+    }
+
+    private long credit(long amountCents) {
+        long current;
+        long updated;
+        do {
+            current = getBalanceCents();
+            updated = Money.add(current, amountCents);
+        } while (!compareAndSetBalance(current, updated));
+        return updated;
+    }
+
+    // What a withdrawal of this amount takes from the balance, including any fee
+    public long getWithdrawalChargeCents(long amountCents) {
+        return amountCents;
+    }
+
+    // Non-throwing withdrawal for hot paths: a decline is returned as a code and allocates nothing
+    public TransactionResult tryWithdrawCents(long amountCents) {
+        return applyWithdrawalCents(amountCents).result();
+    }
+
+    public TransactionResult tryDepositCents(long amountCents) {
+        return applyDepositCents(amountCents).result();
+    }
+
+    // Like tryWithdrawCents, also carrying the available balance this withdrawal's compare-and-set wrote
+    public AppliedOperation applyWithdrawalCents(long amountCents) {
+        if (amountCents <= 0) {
+            return AppliedOperation.declined(TransactionResult.INVALID_AMOUNT);
+        }
+        long charge = getWithdrawalChargeCents(amountCents);
+        long current;
+        long updated;
+        do {
+            current = getBalanceCents();
+            updated = Money.subtract(current, charge);
+            TransactionResult result = checkWithdrawal(updated);
+            if (result != TransactionResult.OK) {
+                return AppliedOperation.declined(result);
+            }
+        } while (!compareAndSetBalance(current, updated));
+        return new AppliedOperation(TransactionResult.OK, updated);
+    }
+
+    public AppliedOperation applyDepositCents(long amountCents) {
+        if (amountCents <= 0) {
+            return AppliedOperation.declined(TransactionResult.INVALID_AMOUNT);
+        }
+        return new AppliedOperation(TransactionResult.OK, credit(amountCents));
+    }
+
+    // The balance rule for a withdrawal that would leave updatedCents available: OK, or why it is declined
+    protected abstract TransactionResult checkWithdrawal(long updatedCents);
+
+    // Detailed text for a declined operation, built only when someone shows it
+    public String describeResult(TransactionResult result, long amountCents) {
+        return result.getMessage();
+    }
+
+    // The checked exception the throwing API reports for a declined operation
+    public Exception declineException(TransactionResult result, long amountCents) {
+        String message = describeResult(result, amountCents);
+        return switch (result) {
+            case INSUFFICIENT_FUNDS -> new InsufficientFundsException(message);
+            case OVERDRAFT_EXCEEDED -> new OverdraftExceededException(message);
+            case UNSUPPORTED_TYPE -> new IllegalArgumentException(message);
+            default -> new InvalidAmountException(message);
+        };
+    }
+
+    // Sets a withdrawal aside for a pending hold: the charge leaves the available balance under the usual
+    // withdrawal rules but stays in the ledger balance until the hold is settled or released
+    public TransactionResult tryHoldCents(long amountCents) {
+        TransactionResult result = tryWithdrawCents(amountCents);
+        if (result == TransactionResult.OK) {
+            HELD.getAndAdd(this, getWithdrawalChargeCents(amountCents));
+        }
+        return result;
+    }
+
+    // A committed hold: the held charge leaves the ledger too
+    public void settleHeldCents(long chargeCents) {
+        HELD.getAndAdd(this, -chargeCents);
+    }
+
+    // A cancelled hold: the held charge returns to the available balance
+    public void releaseHeldCents(long chargeCents) {
+        HELD.getAndAdd(this, -chargeCents);
+        credit(chargeCents);
+    }
+
+    @Override
+    public TransactionResult tryProcessTransaction(double amount, TransactionType type) {
+        if (!(amount > 0)) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+        return tryProcessTransactionCents(Money.toCents(amount), type);
+    }
+
+    // Like tryProcessTransaction, in cents. Interest is credited like a deposit; a fee is debited like a
+    // withdrawal, under the same balance rules. Transfers involve two accounts and are not handled here.
+    public TransactionResult tryProcessTransactionCents(long amountCents, TransactionType type) {
+        return applyTransactionCents(amountCents, type).result();
+    }
+
+    public AppliedOperation applyTransactionCents(long amountCents, TransactionType type) {
+        if (type == null || type == TransactionType.TRANSFER || type == TransactionType.RECEIVE) {
+            return AppliedOperation.declined(TransactionResult.UNSUPPORTED_TYPE);
+        }
+        return type == TransactionType.WITHDRAWAL || type == TransactionType.FEE
+                ? applyWithdrawalCents(amountCents)
+                : applyDepositCents(amountCents);
+    }
+
+    // How a recorded transaction of this type moved the balance; replaying a journal applies these, so entries
+    // appended out of balance order by racing lock-free updates still restore the right balance
+    public long balanceEffectCents(TransactionType type, long amountCents) {
+        return type == TransactionType.WITHDRAWAL || type == TransactionType.FEE || type == TransactionType.TRANSFER
+                ? -getWithdrawalChargeCents(amountCents)
+                : amountCents;
+    }
+
+    // The ledger balance to record for an update that wrote availableCents. Only held amounts move it away
+    // from that balance, so a concurrent compare-and-set on the same account is never included.
+    public long ledgerBalanceAfter(long availableCents) {
+        return availableCents + heldCents;
+    }
+
+    // Lock-free update: succeeds only if no other thread changed the balance since it was read
+    protected final boolean compareAndSetBalance(long expectedCents, long newCents) {
+        if (!BALANCE.compareAndSet(this, expectedCents, newCents)) {
+            return false;
+        }
+        balanceChanged(newCents - expectedCents);
+        return true;
+    }
+
+    // A change that lands here after a detach is not reported; one counted just before it may still be delivered
+    // afterwards, and the balance the detach returned already includes it
+    private void balanceChanged(long deltaCents) {
+        if (deltaCents == 0) {
+            return;
+        }
+        long reported;
+        do {
+            reported = reportedCents;
+            if (reported == DETACHED) {
+                return;
+            }
+        } while (!REPORTED.compareAndSet(this, reported, reported + deltaCents));
+        balanceListener.balanceChanged(this, deltaCents);
+    }
+
+    // Starts reporting balance changes and returns the balance they start from; call before the account is shared
+    public long attachBalanceListener(BalanceListener listener) {
+        balanceListener = listener;
+        long balance = balanceCents;
+        reportedCents = balance;
+        return balance;
+    }
+
+    // Stops reporting and returns the balance the listener was told, which racing updates cannot move
+    public long detachBalanceListener() {
+        long reported = (long) REPORTED.getAndSet(this, DETACHED);
+        return reported == DETACHED ? balanceCents : reported;
+    }
 
     // Getters and setters
     public String getAccountNumber() {
@@ -53,7 +274,9 @@ public abstract class Account implements Transactable {
     }
 
     public List<Transaction> getTransactions() {
-        return Collections.unmodifiableList(transactions);
+        synchronized (transactions) {
+            return Collections.unmodifiableList(new ArrayList<>(transactions));
+        }
     }
 
     public void addTransaction(Transaction transaction) {
@@ -73,11 +296,30 @@ public abstract class Account implements Transactable {
    }
 
     public double getBalance() {
-        return balance;
+        return Money.toDollars(balanceCents);
+    }
+
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
+    public long getHeldCents() {
+        return heldCents;
+    }
+
+    // Available balance plus pending holds; this is what recorded transactions and snapshots carry
+    public long getLedgerBalanceCents() {
+        return balanceCents + heldCents;
     }
 
     public void setBalance(double balance) {
-        this.balance = balance;
+        setBalanceCents(Money.toCents(balance));
+    }
+
+    // Also used for rollbacks and restores, so the listener hears the difference
+    public void setBalanceCents(long balanceCents) {
+        long previous = (long) BALANCE.getAndSet(this, balanceCents);
+        balanceChanged(balanceCents - previous);
     }
 
     public String getStatus() {
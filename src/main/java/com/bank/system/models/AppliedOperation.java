@@ -0,0 +1,20 @@
+package com.bank.system.models;
+
+import com.bank.system.enums.TransactionResult;
+
+// Outcome of a deposit, withdrawal or transfer with the (source) account's available balance that the
+// operation's own compare-and-set wrote, so a concurrent update to the same account never shows up in it
+public record AppliedOperation(TransactionResult result, long balanceAfterCents) {
+    private static final AppliedOperation[] DECLINED = new AppliedOperation[TransactionResult.values().length];
+
+    static {
+        for (TransactionResult result : TransactionResult.values()) {
+            DECLINED[result.ordinal()] = new AppliedOperation(result, 0L);
+        }
+    }
+
+    // A shared outcome carrying no balance, so a decline allocates nothing
+    public static AppliedOperation declined(TransactionResult result) {
+        return DECLINED[result.ordinal()];
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.system.models;
+
+import com.bank.system.utils.Money;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Bank-wide figures from one pass over the accounts; counts are keyed by account type and customer type
+public record BankSummary(int accountCount, long totalBalanceCents,
+                          Map<String, Integer> accountsByType, Map<String, Integer> accountsByCustomerType) {
+
+    public static BankSummary empty() {
+        return new BankSummary(0, 0L, new TreeMap<>(), new TreeMap<>());
+    }
+
+    // Combines two partial summaries, e.g. from two shards
+    public BankSummary merge(BankSummary other) {
+        Map<String, Integer> byType = new TreeMap<>(accountsByType);
+        other.accountsByType.forEach((type, count) -> byType.merge(type, count, Integer::sum));
+        Map<String, Integer> byCustomerType = new TreeMap<>(accountsByCustomerType);
+        other.accountsByCustomerType.forEach((type, count) -> byCustomerType.merge(type, count, Integer::sum));
+        return new BankSummary(accountCount + other.accountCount, totalBalanceCents + other.totalBalanceCents,
+                byType, byCustomerType);
+    }
+
+    public double totalBalance() {
+        return Money.toDollars(totalBalanceCents);
+    }
+}
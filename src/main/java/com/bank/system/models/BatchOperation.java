@@ -0,0 +1,21 @@
+package com.bank.system.models;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.utils.Money;
+
+// One entry of a batch submitted to TransactionManager.processBatch; the target is only used by transfers
+public record BatchOperation(TransactionType type, String accountNumber, String targetAccountNumber,
+                             long amountCents) {
+
+    public static BatchOperation deposit(String accountNumber, double amount) {
+        return new BatchOperation(TransactionType.DEPOSIT, accountNumber, null, Money.toCents(amount));
+    }
+
+    public static BatchOperation withdrawal(String accountNumber, double amount) {
+        return new BatchOperation(TransactionType.WITHDRAWAL, accountNumber, null, Money.toCents(amount));
+    }
+
+    public static BatchOperation transfer(String fromAccountNumber, String toAccountNumber, double amount) {
+        return new BatchOperation(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, Money.toCents(amount));
+    }
+}
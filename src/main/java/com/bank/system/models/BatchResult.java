@@ -0,0 +1,19 @@
+package com.bank.system.models;
+
+import com.bank.system.utils.Money;
+
+// Outcome of one batch entry; the balance is the (source) account's balance right after it was applied
+public record BatchResult(boolean success, long balanceAfterCents, String message) {
+
+    public static BatchResult applied(long balanceAfterCents) {
+        return new BatchResult(true, balanceAfterCents, null);
+    }
+
+    public static BatchResult rejected(String message) {
+        return new BatchResult(false, 0L, message);
+    }
+
+    public double balanceAfter() {
+        return Money.toDollars(balanceAfterCents);
+    }
+}
@@ -1,8 +1,10 @@
 package com.bank.system.models;
 
+import com.bank.system.enums.TransactionResult;
 import com.bank.system.enums.TransactionType;
 import com.bank.system.exceptions.InvalidAmountException;
 import com.bank.system.exceptions.OverdraftExceededException;
+import com.bank.system.utils.Money;
 
 
 import static com.bank.system.utils.ConsoleUtil.printf;
@@ -10,6 +12,8 @@ import static com.bank.system.utils.ConsoleUtil.printf;
 public class CheckingAccount extends Account {
     private static final double OVERDRAFT_LIMIT = 500.0;
     private static final double MONTHLY_FEE = 10.0 ;
+    private static final long OVERDRAFT_LIMIT_CENTS = Money.toCents(OVERDRAFT_LIMIT);
+    private static final long MONTHLY_FEE_CENTS = Money.toCents(MONTHLY_FEE);
 
 
     public CheckingAccount(Customer customer, double initialBalance) {
@@ -17,6 +21,10 @@ public class CheckingAccount extends Account {
 
     }
 
+    public CheckingAccount(String accountNumber, Customer customer, double initialBalance) {
+        super(accountNumber, customer, initialBalance);
+    }
+
     @Override
     public void displayAccountDetails() {
         printf("%-8s | %-15s | %-9s | $%,-9.2f | %-8s%n",
@@ -39,27 +47,45 @@ public class CheckingAccount extends Account {
 
     @Override
     public boolean withdraw(double amount) throws InvalidAmountException, OverdraftExceededException {
-        if (amount <= 0) {
+        withdrawCents(Money.toCents(amount));
+        return true;
+    }
+
+    @Override
+    public long withdrawCents(long amountCents) throws InvalidAmountException, OverdraftExceededException {
+        if (amountCents <= 0) {
             throw new InvalidAmountException("Withdrawal amount must be greater than 0");
         }
 
+        long current;
+        long updated;
+        // Re-check the overdraft limit against whatever balance the update is applied to
+        do {
+            current = getBalanceCents();
+            updated = Money.subtract(current, amountCents);
+            if (checkWithdrawal(updated) != TransactionResult.OK) {
+                throw new OverdraftExceededException(describeResult(TransactionResult.OVERDRAFT_EXCEEDED, amountCents));
+            }
+        } while (!compareAndSetBalance(current, updated));
+        return updated;
+    }
 
-        if (getBalance() + OVERDRAFT_LIMIT < amount) {
-            throw new OverdraftExceededException(
-                    String.format("Overdraft limit exceeded. Current balance: $%.2f, Requested: $%.2f, Overdraft limit: $%.2f",
-                            getBalance(), amount, OVERDRAFT_LIMIT));
-        }
+    @Override
+    protected TransactionResult checkWithdrawal(long updatedCents) {
+        return updatedCents < -OVERDRAFT_LIMIT_CENTS ? TransactionResult.OVERDRAFT_EXCEEDED : TransactionResult.OK;
+    }
 
-        setBalance(getBalance() - amount);
-        return true;
+    @Override
+    public String describeResult(TransactionResult result, long amountCents) {
+        if (result != TransactionResult.OVERDRAFT_EXCEEDED) {
+            return super.describeResult(result, amountCents);
+        }
+        return String.format("Overdraft limit exceeded. Current balance: $%.2f, Requested: $%.2f, Overdraft limit: $%.2f",
+                getBalance(), Money.toDollars(amountCents), OVERDRAFT_LIMIT);
     }
     @Override
     public boolean deposit(double amount) throws InvalidAmountException {
-
-        if (amount <= 0) {
-            throw new InvalidAmountException("Deposit amount must be greater than 0");
-        }
-        setBalance(getBalance() + amount);
+        depositCents(Money.toCents(amount));
         return true;
     }
 
@@ -72,6 +98,16 @@ public class CheckingAccount extends Account {
         return MONTHLY_FEE;
     }
 
+    // Premium customers pay no monthly fee
+    public boolean isMonthlyFeeWaived() {
+        return getCustomer() instanceof PremiumCustomer;
+    }
+
+    // The fee this account is charged each month, 0 when waived
+    public long getMonthlyFeeCents() {
+        return isMonthlyFeeWaived() ? 0L : MONTHLY_FEE_CENTS;
+    }
+
     @Override
     public boolean processTransaction(double amount, TransactionType type) {
         if (type == null) {
@@ -85,7 +121,7 @@ public class CheckingAccount extends Account {
     }
 
     public double getMaxWithdrawalAmount() {
-        return getBalance() + OVERDRAFT_LIMIT;
+        return Money.toDollars(getBalanceCents() + OVERDRAFT_LIMIT_CENTS);
     }
 
     private boolean executeTransaction(TransactionCommand command) {
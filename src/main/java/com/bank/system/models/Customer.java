@@ -1,7 +1,7 @@
 package com.bank.system.models;
 
 import com.bank.system.interfaces.CustomerService;
-import java.util.concurrent.atomic.AtomicInteger;
+import com.bank.system.utils.IdAllocator;
 
 public abstract class Customer implements CustomerService {
     private final String customerId;
@@ -9,18 +9,37 @@ public abstract class Customer implements CustomerService {
     private final int age;
     private final String contact;
     private final String address;
-    private static final AtomicInteger CUSTOMER_COUNTER = new AtomicInteger(0);
+    private static final String CUSTOMER_ID_PREFIX = "CUS";
+    private static final IdAllocator CUSTOMER_IDS = new IdAllocator();
 
     protected Customer(String name, int age, String contact, String address) {
+        this(generateCustomerId(), name, age, contact, address, false);
+    }
+
+    // Restores a customer under an id it was given earlier, e.g. when replaying a journal
+    protected Customer(String customerId, String name, int age, String contact, String address) {
+        this(customerId, name, age, contact, address, true);
+    }
+
+    private Customer(String customerId, String name, int age, String contact, String address, boolean restored) {
         this.name = name;
         this.age = age;
         this.contact = contact;
         this.address = address;
-        this.customerId = generateCustomerId();
+        this.customerId = customerId;
+        if (restored) {
+            reserveCustomerId(customerId);
+        }
     }
 
+    // Rendered right away: it is the key every lookup uses
     private static String generateCustomerId() {
-        return String.format("CUS%03d", CUSTOMER_COUNTER.incrementAndGet());
+        return IdAllocator.render(CUSTOMER_ID_PREFIX, CUSTOMER_IDS.next());
+    }
+
+    // Keeps newly generated ids from colliding with a restored one
+    private static void reserveCustomerId(String customerId) {
+        CUSTOMER_IDS.reserve(IdAllocator.parse(CUSTOMER_ID_PREFIX, customerId));
     }
 
     // Abstract methods to be implemented by subclasses
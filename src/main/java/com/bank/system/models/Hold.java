@@ -0,0 +1,82 @@
+package com.bank.system.models;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.utils.Money;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.bank.system.utils.ConsoleFormatter.printSubSeparator;
+import static com.bank.system.utils.ConsoleUtil.*;
+
+// A pending deposit, withdrawal or transfer placed with TransactionManager.placeHold. Nothing is in the ledger
+// until it is committed; a withdrawal or transfer has already taken its charge (amount plus any fee) out of the
+// source account's available balance. Exactly one commit or release settles it.
+public final class Hold {
+    private final TransactionType type;
+    private final String accountNumber;
+    private final String targetAccountNumber; // transfers only
+    private final long amountCents;
+    private final long heldCents; // 0 for a deposit, which adds nothing until committed
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    public Hold(TransactionType type, String accountNumber, String targetAccountNumber,
+                long amountCents, long heldCents) {
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.targetAccountNumber = targetAccountNumber;
+        this.amountCents = amountCents;
+        this.heldCents = heldCents;
+    }
+
+    // Shows what committing will do, given the available balance before the hold was placed
+    public void displayHoldDetails(double previousBalance) {
+        print("TRANSACTION CONFIRMATION");
+        printSubSeparator(60);
+        print("Account: " + accountNumber);
+        if (targetAccountNumber != null) {
+            print("To Account: " + targetAccountNumber);
+        }
+        print("Type: " + type);
+        printf("Amount: $%,.2f%n", getAmount());
+        if (heldCents > amountCents) {
+            printf("Fee: $%,.2f%n", Money.toDollars(heldCents - amountCents));
+        }
+        printf("Previous Balance: $%,.2f%n", previousBalance);
+        long change = type == TransactionType.DEPOSIT ? amountCents : -heldCents;
+        printf("NewBalance : $%,.2f%n", previousBalance + Money.toDollars(change));
+        printSubSeparator(60);
+    }
+
+    // Claims the hold for a commit or a release; only the first caller gets true
+    public boolean settle() {
+        return settled.compareAndSet(false, true);
+    }
+
+    public boolean isSettled() {
+        return settled.get();
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public double getAmount() {
+        return Money.toDollars(amountCents);
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public long getHeldCents() {
+        return heldCents;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bank.system.models;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.utils.Money;
+
+// Where a bulk posting run stands: chunks include those finished by an earlier, interrupted attempt; the
+// account, posting and amount counts cover this attempt only. Rejected postings broke the account's balance rules.
+public record PostingRunReport(String runId, TransactionType type, int chunksCompleted, int chunkCount,
+                               long accountsProcessed, long postings, long rejected, long totalCents,
+                               long elapsedNanos) {
+
+    public boolean isComplete() {
+        return chunksCompleted == chunkCount;
+    }
+
+    public double total() {
+        return Money.toDollars(totalCents);
+    }
+
+    public double accountsPerSecond() {
+        return elapsedNanos == 0 ? 0 : accountsProcessed / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -1,21 +1,28 @@
 package com.bank.system.models;
 
+import com.bank.system.enums.TransactionResult;
 import com.bank.system.enums.TransactionType;
 import com.bank.system.exceptions.InsufficientFundsException;
 import com.bank.system.exceptions.InvalidAmountException;
-import java.util.Locale;
+import com.bank.system.utils.Money;
 
 import static com.bank.system.utils.ConsoleUtil.printf;
 public class SavingsAccount extends Account  {
     private static final double INTEREST_RATE = 3.5;
     private static final double MINIMUM_BALANCE = 500.0;
     private static final double WITHDRAWAL_FEE = 2.0;
+    private static final long MINIMUM_BALANCE_CENTS = Money.toCents(MINIMUM_BALANCE);
+    private static final long WITHDRAWAL_FEE_CENTS = Money.toCents(WITHDRAWAL_FEE);
 
     public SavingsAccount(Customer customer, double initialBalance) {
         super(customer, initialBalance);
 
     }
 
+    public SavingsAccount(String accountNumber, Customer customer, double initialBalance) {
+        super(accountNumber, customer, initialBalance);
+    }
+
     @Override
     public void displayAccountDetails() {
         printf("%-8s | %-15s | %-9s | $%,-9.2f | %-8s%n",
@@ -37,24 +44,51 @@ public class SavingsAccount extends Account  {
 
     @Override
     public boolean withdraw(double amount) throws InvalidAmountException, InsufficientFundsException {
-        if (amount <= 0) {
+        withdrawCents(Money.toCents(amount));
+        return true;
+    }
+
+    @Override
+    public long withdrawCents(long amountCents) throws InvalidAmountException, InsufficientFundsException {
+        if (amountCents <= 0) {
             throw new InvalidAmountException("Withdrawal amount must be greater than 0");
         }
 
-        double withdrawalTotal = amount + WITHDRAWAL_FEE;
-        if (getBalance() - withdrawalTotal < MINIMUM_BALANCE) {
-            throw new InsufficientFundsException(
-                    String.format(
-                            "Insufficient funds. Current balance: $%.2f, Requested: $%.2f (incl. $%.2f fee), Min required: $%.2f",
-                            getBalance(), withdrawalTotal, WITHDRAWAL_FEE, MINIMUM_BALANCE));
-        }
+        long withdrawalTotal = getWithdrawalChargeCents(amountCents);
+        long current;
+        long updated;
+        // Re-check the minimum balance against whatever balance the update is applied to
+        do {
+            current = getBalanceCents();
+            updated = Money.subtract(current, withdrawalTotal);
+            if (checkWithdrawal(updated) != TransactionResult.OK) {
+                throw new InsufficientFundsException(describeResult(TransactionResult.INSUFFICIENT_FUNDS, amountCents));
+            }
+        } while (!compareAndSetBalance(current, updated));
+        return updated;
+    }
 
+    @Override
+    protected TransactionResult checkWithdrawal(long updatedCents) {
+        return updatedCents < MINIMUM_BALANCE_CENTS ? TransactionResult.INSUFFICIENT_FUNDS : TransactionResult.OK;
+    }
 
-        setBalance(getBalance() - withdrawalTotal);
-        return true;
+    @Override
+    public String describeResult(TransactionResult result, long amountCents) {
+        if (result != TransactionResult.INSUFFICIENT_FUNDS) {
+            return super.describeResult(result, amountCents);
+        }
+        return String.format(
+                "Insufficient funds. Current balance: $%.2f, Requested: $%.2f (incl. $%.2f fee), Min required: $%.2f",
+                getBalance(), Money.toDollars(getWithdrawalChargeCents(amountCents)), WITHDRAWAL_FEE, MINIMUM_BALANCE);
     }
 
 
+    @Override
+    public long getWithdrawalChargeCents(long amountCents) {
+        return Money.add(amountCents, WITHDRAWAL_FEE_CENTS);
+    }
+
     // Getters
     public double getInterestRate() {
         return INTEREST_RATE;
@@ -65,11 +99,7 @@ public class SavingsAccount extends Account  {
     }
     @Override
     public boolean deposit(double amount) throws InvalidAmountException {
-        if (amount <= 0) {
-            throw new InvalidAmountException("Deposit amount must be greater than 0");
-        }
-
-        setBalance(getBalance() + amount);
+        depositCents(Money.toCents(amount));
         return true;
     }
     @Override
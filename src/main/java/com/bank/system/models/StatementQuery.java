@@ -0,0 +1,24 @@
+package com.bank.system.models;
+
+// Which part of an account's history a streamed statement covers: transactions from position cursor
+// onwards whose time falls in [fromEpochMillis, toEpochMillis), at most limit lines per page
+public record StatementQuery(int cursor, int limit, long fromEpochMillis, long toEpochMillis) {
+    public static final StatementQuery ALL = new StatementQuery(0, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    public static StatementQuery firstPage(int limit) {
+        return new StatementQuery(0, limit, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public StatementQuery between(long fromEpochMillis, long toEpochMillis) {
+        return new StatementQuery(cursor, limit, fromEpochMillis, toEpochMillis);
+    }
+
+    // The query for the page after this one, given the cursor a streamed statement returned
+    public StatementQuery resumeAt(int nextCursor) {
+        return new StatementQuery(nextCursor, limit, fromEpochMillis, toEpochMillis);
+    }
+
+    public boolean covers(long epochMillis) {
+        return epochMillis >= fromEpochMillis && epochMillis < toEpochMillis;
+    }
+}
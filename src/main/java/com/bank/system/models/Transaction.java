@@ -1,37 +1,70 @@
 package com.bank.system.models;
 
+import com.bank.system.utils.IdAllocator;
+import com.bank.system.utils.Money;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Comparator;
 
 import static com.bank.system.utils.ConsoleFormatter.printSubSeparator;
 import static com.bank.system.utils.ConsoleUtil.*;
 
 public class Transaction {
-    private final String transactionId;
+    private final long sequence;
     private final String accountNumber;
     private final String type; // "DEPOSIT" or "WITHDRAWAL"
-    private final double amount;
-    private final double balanceAfter;
-    private final String timestamp;
-    private static final AtomicInteger TRANSACTION_COUNTER = new AtomicInteger(0);
+    private final long amountCents;
+    private final long balanceAfterCents;
+    private final long epochMillis;
+    private String timestamp; // formatted the first time it is displayed
+    private static final String ID_PREFIX = "TXN";
+    private static final IdAllocator TRANSACTION_IDS = new IdAllocator();
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy hh:mm a");
 
-    public Transaction(String accountNumber, String type, double amount, double balanceAfter) {
+    // Oldest first by time. The sequence only makes ties within a millisecond deterministic: ids are handed out
+    // in per-thread blocks, so across threads they do not follow creation order. An account's own history is
+    // kept in creation order and needs no sorting.
+    public static final Comparator<Transaction> CHRONOLOGICAL =
+            Comparator.comparingLong(Transaction::getEpochMillis).thenComparingLong(Transaction::getSequence);
+
+    public Transaction(String accountNumber, String type, long amountCents, long balanceAfterCents) {
+        this(accountNumber, type, amountCents, balanceAfterCents, Long.MIN_VALUE);
+    }
+
+    // Stamped no earlier than notBeforeMillis, so an account's history stays in time order even if the wall
+    // clock steps backwards between two of its transactions
+    public Transaction(String accountNumber, String type, long amountCents, long balanceAfterCents,
+                       long notBeforeMillis) {
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amountCents = amountCents;
+        this.balanceAfterCents = balanceAfterCents;
+        this.sequence = TRANSACTION_IDS.next();
+        this.epochMillis = Math.max(System.currentTimeMillis(), notBeforeMillis);
+    }
+
+    // Rebuilds a transaction that was recorded earlier, e.g. from a columnar store row
+    public Transaction(long sequence, String accountNumber, String type,
+                       long amountCents, long balanceAfterCents, long epochMillis) {
+        this.sequence = sequence;
         this.accountNumber = accountNumber;
         this.type = type;
-        this.amount = amount;
-        this.balanceAfter = balanceAfter;
-        this.transactionId = generateTransactionId();
-        this.timestamp = getCurrentTimestamp();
+        this.amountCents = amountCents;
+        this.balanceAfterCents = balanceAfterCents;
+        this.epochMillis = epochMillis;
     }
 
-    private String generateTransactionId() {
-        return String.format("TXN%03d", TRANSACTION_COUNTER.incrementAndGet());
+    private static String formatTimestamp(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                .format(TIMESTAMP_FORMATTER);
     }
 
-    private String getCurrentTimestamp() {
-        return LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+    // Recovers the sequence from an id such as "TXN042"; -1 if it is not a transaction id
+    public static long parseSequence(String transactionId) {
+        return IdAllocator.parse(ID_PREFIX, transactionId);
     }
 
     // Method to display transaction details
@@ -39,19 +72,25 @@ public class Transaction {
 
         print("TRANSACTION CONFIRMATION");
         printSubSeparator(60);
-        print("Transaction ID: " + transactionId);
+        print("Transaction ID: " + getTransactionId());
         print("Account: " + accountNumber);
         print("Type: " + type);
-        printf("Amount: $%,.2f%n", amount);
+        printf("Amount: $%,.2f%n", getAmount());
         printf("Previous Balance: $%,.2f%n", previousBalance);
-        printf("NewBalance : $%,.2f%n", balanceAfter);
-        print("Date/Time: " + timestamp);
+        printf("NewBalance : $%,.2f%n", getBalanceAfter());
+        print("Date/Time: " + getTimestamp());
         printSubSeparator(60);
     }
 
     // Getters
+    // Unique across all accounts; increasing within one thread only
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Rendered from the sequence on each call rather than stored
     public String getTransactionId() {
-        return transactionId;
+        return IdAllocator.render(ID_PREFIX, sequence);
     }
 
     public String getAccountNumber() {
@@ -63,19 +102,38 @@ public class Transaction {
     }
 
     public double getAmount() {
-        return amount;
+        return Money.toDollars(amountCents);
+    }
+
+    public long getAmountCents() {
+        return amountCents;
     }
 
     public double getBalanceAfter() {
-        return balanceAfter;
+        return Money.toDollars(balanceAfterCents);
     }
 
+    public long getBalanceAfterCents() {
+        return balanceAfterCents;
+    }
+
+    // Racing threads may both format it; they produce the same string
     public String getTimestamp() {
-        return timestamp;
+        String formatted = timestamp;
+        if (formatted == null) {
+            formatted = formatTimestamp(epochMillis);
+            timestamp = formatted;
+        }
+        return formatted;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
     }
 
-    public static int getTransactionCounter() {
-        return TRANSACTION_COUNTER.get();
+    // Keeps newly created transactions from reusing a restored sequence
+    public static void reserveSequence(long sequence) {
+        TRANSACTION_IDS.reserve(sequence);
     }
 
 
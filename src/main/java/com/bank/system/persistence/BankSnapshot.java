@@ -0,0 +1,225 @@
+package com.bank.system.persistence;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.interfaces.TransactionStore;
+import com.bank.system.models.*;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Point-in-time image of every account and its history, loaded through memory-mapped files.
+// Layout:
+//   header   [int magic][int version][int accountCount][long maxSequence][long rowsOffset]
+//            [long journal generation][long journal length]
+//   accounts per account: number, type, customer id/type/name/age/contact/address, balance cents,
+//            first row, row count (strings as [short length][UTF-8 bytes])
+//   rows     32 bytes each, grouped by account in append order:
+//            [long type ordinal << 56 | sequence][long amount cents][long balance-after cents][long epoch millis]
+// Accounts are restored eagerly; each account's rows are read only when its history is first touched.
+public final class BankSnapshot {
+    private static final int MAGIC = 0x424E4B53; // "BNKS"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 44;
+    static final int ROW_BYTES = 32;
+    private static final int SEGMENT_BITS = 30; // rows are mapped in 1 GiB segments; 32-byte rows never straddle one
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << 56) - 1;
+
+    private final MappedByteBuffer[] rowSegments;
+    private final long maxSequence;
+    private final TransactionJournal.Position journalPosition;
+
+    private BankSnapshot(MappedByteBuffer[] rowSegments, long maxSequence,
+                         TransactionJournal.Position journalPosition) {
+        this.rowSegments = rowSegments;
+        this.maxSequence = maxSequence;
+        this.journalPosition = journalPosition;
+    }
+
+    // Writes to a temporary file and renames it over the target, so a crash never leaves a half-written snapshot.
+    // Run with no operations in flight; journalPosition is how much of the journal the written state includes.
+    public static void write(Path path, AccountManager accountManager, TransactionManager transactionManager,
+                             TransactionJournal.Position journalPosition) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        List<Account> accounts = accountManager.getAllAccounts();
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 256 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(accounts.size());
+            out.writeLong(0L); // max sequence, patched below
+            out.writeLong(0L); // rows offset, patched below
+            out.writeLong(journalPosition.generation());
+            out.writeLong(journalPosition.length());
+
+            long firstRow = 0;
+            int[] rowCounts = new int[accounts.size()];
+            for (int i = 0; i < accounts.size(); i++) {
+                Account account = accounts.get(i);
+                Customer customer = account.getCustomer();
+                rowCounts[i] = transactionManager.getTransactionCount(account.getAccountNumber());
+                writeString(out, account.getAccountNumber());
+                writeString(out, account.getAccountType());
+                writeString(out, customer.getCustomerId());
+                writeString(out, customer.getCustomerType());
+                writeString(out, customer.getName());
+                out.writeInt(customer.getAge());
+                writeString(out, customer.getContact());
+                writeString(out, customer.getAddress());
+                // Pending holds are never persisted: a restart releases them
+                out.writeLong(account.getLedgerBalanceCents());
+                out.writeLong(firstRow);
+                out.writeInt(rowCounts[i]);
+                firstRow += rowCounts[i];
+            }
+
+            // Align the row section so no row crosses a mapped segment boundary
+            long rowsOffset = (out.size() + ROW_BYTES - 1) / ROW_BYTES * ROW_BYTES;
+            while (out.size() < rowsOffset) {
+                out.writeByte(0);
+            }
+            // Taken from the rows as they are written, so no bank-wide list of transactions is built
+            long maxSequence = 0;
+            for (int i = 0; i < accounts.size(); i++) {
+                List<Transaction> history = transactionManager.getTransactionsForAccount(accounts.get(i).getAccountNumber());
+                for (int row = 0; row < rowCounts[i]; row++) {
+                    Transaction transaction = history.get(row);
+                    maxSequence = Math.max(maxSequence, transaction.getSequence());
+                    long type = TransactionType.fromName(transaction.getType()).ordinal();
+                    out.writeLong(type << 56 | transaction.getSequence());
+                    out.writeLong(transaction.getAmountCents());
+                    out.writeLong(transaction.getBalanceAfterCents());
+                    out.writeLong(transaction.getEpochMillis());
+                }
+            }
+            out.flush();
+            ByteBuffer patch = ByteBuffer.allocate(2 * Long.BYTES).putLong(0, maxSequence).putLong(Long.BYTES, rowsOffset);
+            channel.write(patch, 12);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Restores accounts into the manager and returns a store that reads each account's history on first use
+    public static SnapshotTransactionStore load(Path path, AccountManager accountManager, TransactionStore delegate)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, HEADER_BYTES));
+            if (size < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a bank snapshot: " + path);
+            }
+            int accountCount = header.getInt(8);
+            long maxSequence = header.getLong(12);
+            long rowsOffset = header.getLong(20);
+            TransactionJournal.Position journalPosition =
+                    new TransactionJournal.Position(header.getLong(28), header.getLong(36));
+
+            if (rowsOffset - HEADER_BYTES > Integer.MAX_VALUE) {
+                throw new IOException("Account section exceeds one mapping: " + path);
+            }
+            // Mappings stay valid after the channel is closed
+            MappedByteBuffer accountSection =
+                    channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, rowsOffset - HEADER_BYTES);
+            BankSnapshot snapshot = new BankSnapshot(mapRows(channel, rowsOffset, size - rowsOffset), maxSequence,
+                    journalPosition);
+            Transaction.reserveSequence(maxSequence);
+
+            SnapshotTransactionStore store = new SnapshotTransactionStore(delegate, snapshot);
+            Map<String, Customer> customers = new HashMap<>();
+            for (int i = 0; i < accountCount; i++) {
+                String accountNumber = readString(accountSection);
+                String accountType = readString(accountSection);
+                String customerId = readString(accountSection);
+                String customerType = readString(accountSection);
+                String name = readString(accountSection);
+                int age = accountSection.getInt();
+                String contact = readString(accountSection);
+                String address = readString(accountSection);
+                long balanceCents = accountSection.getLong();
+                long firstRow = accountSection.getLong();
+                int rowCount = accountSection.getInt();
+
+                Customer customer = customers.computeIfAbsent(customerId, id -> "Premium".equals(customerType)
+                        ? new PremiumCustomer(id, name, age, contact, address)
+                        : new RegularCustomer(id, name, age, contact, address));
+                Account account = "Checking".equals(accountType)
+                        ? new CheckingAccount(accountNumber, customer, 0)
+                        : new SavingsAccount(accountNumber, customer, 0);
+                account.setBalanceCents(balanceCents);
+                accountManager.addAccount(account);
+                store.registerHistory(accountNumber, firstRow, rowCount);
+            }
+            return store;
+        }
+    }
+
+    // Highest transaction sequence in the snapshot; new ids are kept above it
+    public long getMaxSequence() {
+        return maxSequence;
+    }
+
+    // How much of the journal this snapshot already includes; replay skips it
+    public TransactionJournal.Position getJournalPosition() {
+        return journalPosition;
+    }
+
+    Transaction readRow(String accountNumber, long row) {
+        long position = row * ROW_BYTES;
+        MappedByteBuffer segment = rowSegments[(int) (position >>> SEGMENT_BITS)];
+        int offset = (int) (position & SEGMENT_MASK);
+        long typeAndSequence = segment.getLong(offset);
+        return new Transaction(
+                typeAndSequence & SEQUENCE_MASK,
+                accountNumber,
+                TransactionType.fromOrdinal((int) (typeAndSequence >>> 56)).name(),
+                segment.getLong(offset + 8),
+                segment.getLong(offset + 16),
+                segment.getLong(offset + 24));
+    }
+
+    private static MappedByteBuffer[] mapRows(FileChannel channel, long rowsOffset, long length) throws IOException {
+        int segments = (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[segments];
+        for (int i = 0; i < segments; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, rowsOffset + start,
+                    Math.min(1L << SEGMENT_BITS, length - start));
+        }
+        return mapped;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+package com.bank.system.persistence;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.interfaces.TransactionStore;
+import com.bank.system.models.Transaction;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Wraps a store restored from a snapshot: an account's snapshot rows are copied into the
+// delegate the first time anything reads or appends to that account.
+public class SnapshotTransactionStore implements TransactionStore {
+    private final TransactionStore delegate;
+    private final BankSnapshot snapshot;
+    // Accounts whose history is still only in the snapshot
+    private final Map<String, PendingHistory> pending = new ConcurrentHashMap<>();
+
+    SnapshotTransactionStore(TransactionStore delegate, BankSnapshot snapshot) {
+        this.delegate = delegate;
+        this.snapshot = snapshot;
+    }
+
+    void registerHistory(String accountNumber, long firstRow, int rowCount) {
+        if (rowCount > 0) {
+            pending.put(accountNumber, new PendingHistory(firstRow, rowCount));
+        }
+    }
+
+    public BankSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Number of accounts whose history has not been read yet
+    public int getPendingAccountCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void append(Transaction transaction) {
+        ensureLoaded(transaction.getAccountNumber());
+        delegate.append(transaction);
+    }
+
+    @Override
+    public Transaction find(String transactionId) {
+        Transaction transaction = delegate.find(transactionId);
+        if (transaction == null && !pending.isEmpty()) {
+            ensureAllLoaded();
+            transaction = delegate.find(transactionId);
+        }
+        return transaction;
+    }
+
+    @Override
+    public boolean remove(Transaction transaction) {
+        ensureLoaded(transaction.getAccountNumber());
+        return delegate.remove(transaction);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+        ensureLoaded(accountNumber);
+        return delegate.getTransactionsForAccount(accountNumber);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber, int fromIndex, int limit) {
+        ensureLoaded(accountNumber);
+        return delegate.getTransactionsForAccount(accountNumber, fromIndex, limit);
+    }
+
+    @Override
+    public int firstIndexAtOrAfter(String accountNumber, long epochMillis) {
+        ensureLoaded(accountNumber);
+        return delegate.firstIndexAtOrAfter(accountNumber, epochMillis);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsBetween(long fromEpochMillis, long toEpochMillis) {
+        ensureAllLoaded();
+        return delegate.getTransactionsBetween(fromEpochMillis, toEpochMillis);
+    }
+
+    @Override
+    public Transaction getLastTransaction(String accountNumber) {
+        ensureLoaded(accountNumber);
+        return delegate.getLastTransaction(accountNumber);
+    }
+
+    @Override
+    public long getLastEpochMillis(String accountNumber) {
+        ensureLoaded(accountNumber);
+        return delegate.getLastEpochMillis(accountNumber);
+    }
+
+    @Override
+    public int getTransactionCount(String accountNumber) {
+        PendingHistory history = accountNumber == null ? null : pending.get(accountNumber);
+        // The count is known without reading the rows
+        return history != null && !history.loaded ? history.rowCount : delegate.getTransactionCount(accountNumber);
+    }
+
+    @Override
+    public int getTransactionCount(String accountNumber, TransactionType type) {
+        ensureLoaded(accountNumber);
+        return delegate.getTransactionCount(accountNumber, type);
+    }
+
+    @Override
+    public long getTotalAmountCents(String accountNumber, TransactionType type) {
+        ensureLoaded(accountNumber);
+        return delegate.getTotalAmountCents(accountNumber, type);
+    }
+
+    @Override
+    public long[] getTotalAmountsCents(String accountNumber) {
+        ensureLoaded(accountNumber);
+        return delegate.getTotalAmountsCents(accountNumber);
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions() {
+        ensureAllLoaded();
+        return delegate.getAllTransactions();
+    }
+
+    @Override
+    public int size() {
+        int unread = 0;
+        for (PendingHistory history : pending.values()) {
+            unread += history.loaded ? 0 : history.rowCount;
+        }
+        return delegate.size() + unread;
+    }
+
+    @Override
+    public boolean retainsTransactionObjects() {
+        return delegate.retainsTransactionObjects();
+    }
+
+    private void ensureAllLoaded() {
+        for (String accountNumber : pending.keySet()) {
+            ensureLoaded(accountNumber);
+        }
+    }
+
+    // The entry is removed only after its rows are in the delegate, so a caller that finds no entry sees them
+    private void ensureLoaded(String accountNumber) {
+        PendingHistory history = accountNumber == null ? null : pending.get(accountNumber);
+        if (history == null) {
+            return;
+        }
+        synchronized (history) {
+            if (!history.loaded) {
+                for (int i = 0; i < history.rowCount; i++) {
+                    delegate.append(snapshot.readRow(accountNumber, history.firstRow + i));
+                }
+                history.loaded = true;
+            }
+            pending.remove(accountNumber, history);
+        }
+    }
+
+    private static final class PendingHistory {
+        private final long firstRow;
+        private final int rowCount;
+        private volatile boolean loaded;
+
+        private PendingHistory(long firstRow, int rowCount) {
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.bank.system.persistence;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.models.*;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+// Append-only binary write-ahead journal with group commit.
+// Callers append a record, release their locks, then wait until it is durable. A single writer
+// thread drains everything appended so far with one write and one fsync, so concurrent callers
+// share the cost of each sync.
+// Frame layout: [int payloadLength][int crc32(payload)][payload]. A torn or corrupt tail frame
+// ends replay and is truncated away before new frames are appended.
+// The first frame names the journal's generation, which changes on every reset. A snapshot records the
+// generation and length it covers, and replay skips exactly those frames; transaction ids are unique but not
+// in creation order across threads, so they cannot tell what a snapshot already holds.
+public class TransactionJournal implements AutoCloseable {
+    private static final byte ACCOUNT_OPENED = 1;
+    private static final byte TRANSACTIONS = 2;
+    private static final byte TRANSACTION_REMOVED = 3;
+    private static final byte JOURNAL_STARTED = 4;
+    private static final long NO_GENERATION = 0L;
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Thread writer;
+    private long generation; // guarded by this
+
+    // Guarded by this
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private long appendedTicket;
+    private long durableTicket;
+    private IOException failure;
+    private boolean closed;
+
+    // How much of a journal something else already holds: its generation and length in bytes
+    public record Position(long generation, long length) {
+        public static final Position NONE = new Position(NO_GENERATION, 0L);
+    }
+
+    private TransactionJournal(Path path, FileChannel channel, long generation) {
+        this.path = path;
+        this.channel = channel;
+        this.generation = generation;
+        this.writer = new Thread(this::writeLoop, "transaction-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Opens (or creates) the journal, positioned after the last intact frame
+    public static TransactionJournal open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validLength = scanValidLength(channel);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        long generation = validLength == 0 ? startGeneration(channel) : readGeneration(channel);
+        return new TransactionJournal(path, channel, generation);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long appendAccountOpened(Account account) {
+        Customer customer = account.getCustomer();
+        return append(out -> {
+            out.writeByte(ACCOUNT_OPENED);
+            out.writeUTF(account.getAccountNumber());
+            out.writeUTF(account.getAccountType());
+            out.writeUTF(customer.getCustomerId());
+            out.writeUTF(customer.getCustomerType());
+            out.writeUTF(customer.getName());
+            out.writeInt(customer.getAge());
+            out.writeUTF(customer.getContact());
+            out.writeUTF(customer.getAddress());
+        });
+    }
+
+    // Transactions in one frame are replayed all-or-nothing, e.g. both legs of a transfer
+    public long appendTransactions(Transaction... transactions) {
+        return append(out -> {
+            out.writeByte(TRANSACTIONS);
+            out.writeInt(transactions.length);
+            for (Transaction transaction : transactions) {
+                out.writeLong(transaction.getSequence());
+                out.writeUTF(transaction.getAccountNumber());
+                out.writeByte(TransactionType.fromName(transaction.getType()).ordinal());
+                out.writeLong(transaction.getAmountCents());
+                out.writeLong(transaction.getBalanceAfterCents());
+                out.writeLong(transaction.getEpochMillis());
+            }
+        });
+    }
+
+    public long appendTransactionRemoved(Transaction transaction) {
+        return append(out -> {
+            out.writeByte(TRANSACTION_REMOVED);
+            out.writeUTF(transaction.getTransactionId());
+            out.writeUTF(transaction.getAccountNumber());
+        });
+    }
+
+    // Blocks until every record up to the ticket has been forced to disk
+    public synchronized void awaitDurable(long ticket) {
+        boolean interrupted = false;
+        while (durableTicket < ticket && failure == null && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durableTicket < ticket) {
+            throw new UncheckedIOException("Journal write failed: " + path,
+                    failure != null ? failure : new IOException("Journal closed"));
+        }
+    }
+
+    // Generation and length of everything appended so far, once it is durable. A snapshot taken with no
+    // operations in flight holds exactly this much of the journal.
+    public synchronized Position durablePosition() throws IOException {
+        awaitDurable(appendedTicket);
+        return new Position(generation, channel.size());
+    }
+
+    // Rebuilds accounts, balances and transaction history from the journal.
+    // Must run before the journal is attached to the TransactionManager, or replay would be re-journaled.
+    public int replay(AccountManager accountManager, TransactionManager transactionManager) throws IOException {
+        return replay(accountManager, transactionManager, Position.NONE);
+    }
+
+    // Replays on top of a snapshot: frames within the position it covers are already in it and are skipped.
+    // Returns the number of frames applied.
+    public int replay(AccountManager accountManager, TransactionManager transactionManager, Position covered)
+            throws IOException {
+        int frames = 0;
+        long journalGeneration = NO_GENERATION;
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            long validLength = scanValidLength(reader);
+            reader.position(0);
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(reader), 64 * 1024));
+            long offset = 0;
+            while (offset < validLength) {
+                int length = in.readInt();
+                in.readInt(); // checksum, already verified by scanValidLength
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                offset += FRAME_HEADER_BYTES + length;
+                if (payload.length > 0 && payload[0] == JOURNAL_STARTED) {
+                    journalGeneration = generationOf(payload);
+                } else if (journalGeneration == NO_GENERATION || journalGeneration != covered.generation()
+                        || offset > covered.length()) {
+                    applyFrame(new DataInputStream(new ByteArrayInputStream(payload)),
+                            accountManager, transactionManager);
+                    frames++;
+                }
+            }
+        }
+        return frames;
+    }
+
+    // Empties the journal once its contents are captured elsewhere, e.g. in a snapshot, and starts a new
+    // generation so that snapshot's position covers none of what is appended next
+    public synchronized void reset() throws IOException {
+        awaitDurable(appendedTicket);
+        channel.truncate(0);
+        generation = startGeneration(channel);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private long append(FrameWriter frameWriter) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(128);
+        try {
+            frameWriter.write(new DataOutputStream(payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed: " + path);
+            }
+            writeInt(pending, bytes.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.write(bytes, 0, bytes.length);
+            appendedTicket++;
+            notifyAll();
+            return appendedTicket;
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long batchTicket;
+            synchronized (this) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Keep draining until closed
+                    }
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+                // Everything appended while the previous batch was syncing goes out together
+                batch = pending;
+                batchTicket = appendedTicket;
+                pending = new ByteArrayOutputStream(Math.max(64 * 1024, batch.size()));
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                synchronized (this) {
+                    durableTicket = batchTicket;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private static void applyFrame(DataInputStream in, AccountManager accountManager,
+                                   TransactionManager transactionManager) throws IOException {
+        byte recordType = in.readByte();
+        switch (recordType) {
+            case ACCOUNT_OPENED -> {
+                String accountNumber = in.readUTF();
+                String accountType = in.readUTF();
+                String customerId = in.readUTF();
+                String customerType = in.readUTF();
+                String name = in.readUTF();
+                int age = in.readInt();
+                String contact = in.readUTF();
+                String address = in.readUTF();
+                if (accountManager.accountExists(accountNumber)) {
+                    return;
+                }
+                Customer customer = "Premium".equals(customerType)
+                        ? new PremiumCustomer(customerId, name, age, contact, address)
+                        : new RegularCustomer(customerId, name, age, contact, address);
+                Account account = "Checking".equals(accountType)
+                        ? new CheckingAccount(accountNumber, customer, 0)
+                        : new SavingsAccount(accountNumber, customer, 0);
+                accountManager.addAccount(account);
+            }
+            case TRANSACTIONS -> {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long sequence = in.readLong();
+                    String accountNumber = in.readUTF();
+                    TransactionType type = TransactionType.fromOrdinal(in.readByte());
+                    long amountCents = in.readLong();
+                    long balanceAfterCents = in.readLong();
+                    long epochMillis = in.readLong();
+                    Account account = accountManager.getAccount(accountNumber);
+                    if (account == null) {
+                        continue;
+                    }
+                    Transaction.reserveSequence(sequence);
+                    account.setBalanceCents(account.getBalanceCents() + account.balanceEffectCents(type, amountCents));
+                    transactionManager.addTransaction(new Transaction(sequence, accountNumber, type.name(),
+                            amountCents, balanceAfterCents, epochMillis));
+                }
+            }
+            case TRANSACTION_REMOVED -> {
+                String transactionId = in.readUTF();
+                in.readUTF(); // account number
+                // Removing a record leaves the balance as it is, live and on replay alike
+                transactionManager.removeTransaction(transactionId);
+            }
+            default -> throw new IOException("Unknown journal record type: " + recordType);
+        }
+    }
+
+    // Length of the journal up to the end of the last frame whose checksum matches
+    private static long scanValidLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        channel.position(0);
+        // Not closed: closing a channel stream would close the channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        CRC32 crc = new CRC32();
+        try {
+            while (offset + FRAME_HEADER_BYTES <= size) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || offset + FRAME_HEADER_BYTES + length > size) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                offset += FRAME_HEADER_BYTES + length;
+            }
+        } catch (EOFException e) {
+            // Torn tail; offset already points at the end of the last good frame
+        }
+        return offset;
+    }
+
+    // Writes the first frame of an empty journal and forces it, so the generation is known before any record
+    private static long startGeneration(FileChannel channel) throws IOException {
+        long generation;
+        do {
+            generation = ThreadLocalRandom.current().nextLong();
+        } while (generation == NO_GENERATION);
+        byte[] payload = ByteBuffer.allocate(1 + Long.BYTES).put(JOURNAL_STARTED).putLong(generation).array();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        channel.position(0);
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        channel.force(true);
+        return generation;
+    }
+
+    // The generation named by the first frame; journals written before generations existed have none
+    private static long readGeneration(FileChannel channel) throws IOException {
+        ByteBuffer first = ByteBuffer.allocate(FRAME_HEADER_BYTES + 1 + Long.BYTES);
+        channel.read(first, 0);
+        first.flip();
+        if (first.remaining() < first.capacity() || first.getInt(0) != 1 + Long.BYTES
+                || first.get(FRAME_HEADER_BYTES) != JOURNAL_STARTED) {
+            return NO_GENERATION;
+        }
+        return first.getLong(FRAME_HEADER_BYTES + 1);
+    }
+
+    private static long generationOf(byte[] payload) {
+        return ByteBuffer.wrap(payload, 1, Long.BYTES).getLong();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    @FunctionalInterface
+    private interface FrameWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -1,10 +1,8 @@
 package com.bank.system.processes;
 
 
-import com.bank.system.enums.TransactionType;
 import com.bank.system.services.*;
 import com.bank.system.models.*;
-import com.bank.system.models.Transaction;
 import java.util.List;
 import static com.bank.system.utils.ConsoleUtil.*;
 
@@ -69,7 +67,7 @@ public class AccountProcessHandler {
             printf("Minimum Balance: $%,.2f%n", savings.getMinimumBalance());
         } else if (account instanceof CheckingAccount checking) {
             printf("Overdraft Limit: $%,.2f%n", checking.getOverdraftLimit());
-            if (customer instanceof PremiumCustomer) {
+            if (checking.isMonthlyFeeWaived()) {
                 print("Monthly Fee: Waived (Premium Customer)");
             } else {
                 printf("Monthly Fee: $%,.2f%n", checking.getMonthlyFee());
@@ -81,7 +79,7 @@ public class AccountProcessHandler {
         print(" ");
         print("Account type:");
 
-        double savingsMin = minimumSavingsDeposit(customer);
+        double savingsMin = minimumInitialDeposit(customer);
         print("1. Savings Account (Interest: 3.5% Min Balance: $" + String.format("%,.0f", savingsMin) + ")");
         print("2. Checking Account (Overdraft: $1,000, Monthly Fee: $10)");
         int accountType = getValidIntInput("Select type (1-2): ", 1, 2);
@@ -98,24 +96,13 @@ public class AccountProcessHandler {
         return new AccountCreation(account, initialDeposit);
     }
 
-    private double minimumSavingsDeposit(Customer customer) {
+    // Smallest opening deposit accepted for a new account; shared with the server front-end
+    public static double minimumInitialDeposit(Customer customer) {
         return (customer instanceof PremiumCustomer) ? PREMIUM_MIN_DEPOSIT : REGULAR_MIN_DEPOSIT;
     }
 
     private boolean persistNewAccount(AccountCreation creation) {
-        Account account = creation.account();
-        if (!accountManager.addAccount(account)) {
-            return false;
-        }
-        Transaction transaction = new Transaction(
-                account.getAccountNumber(),
-                TransactionType.DEPOSIT.name(),
-                creation.initialDeposit(),
-                account.getBalance()
-        );
-        transactionManager.addTransaction(transaction);
-        account.addTransaction(transaction);
-        return true;
+        return transactionManager.openAccount(creation.account(), creation.initialDeposit());
     }
 
     private Customer createCustomerFromData(CustomerData data) {
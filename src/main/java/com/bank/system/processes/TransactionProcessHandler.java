@@ -1,12 +1,15 @@
 package com.bank.system.processes;
 
 
+import com.bank.system.enums.TransactionType;
 import com.bank.system.exceptions.*;
 import com.bank.system.models.Account;
+import com.bank.system.models.Hold;
 import com.bank.system.models.SavingsAccount;
 import com.bank.system.models.Transaction;
 import com.bank.system.services.AccountManager;
 import com.bank.system.services.TransactionManager;
+import com.bank.system.utils.Money;
 
 import static com.bank.system.utils.ConsoleUtil.*;
 
@@ -27,24 +30,12 @@ public class TransactionProcessHandler {
 
         Account account = accountManager.getAccount(accountNumber);
         double previousBalance = account.getBalance();
-        boolean success = transactionManager.deposit(accountNumber, amount);
+        Hold hold = transactionManager.placeHold(accountNumber, TransactionType.DEPOSIT, Money.toCents(amount));
 
-        if (!success) {
-            print("Deposit failed. Invalid amount.");
-            pressEnterToContinue();
-            return;
-        }
-
-        Transaction transaction = transactionManager.getLastTransaction(accountNumber);
-
-        if (transaction != null) {
-            transaction.displayTransactionDetails(previousBalance);
-        } else {
-            print("Transaction details unavailable.");
-        }
+        hold.displayHoldDetails(previousBalance);
         print(" ");
         boolean confirmed = readConfirmation("Confirm transaction?");
-        handleTransactionConfirmation(confirmed, account, previousBalance, captureTransactions(accountNumber));
+        handleTransactionConfirmation(confirmed, hold);
         pressEnterToContinue();
 
 
@@ -59,9 +50,10 @@ public class TransactionProcessHandler {
         Account account = accountManager.getAccount(accountNumber);
         double previousBalance = account.getBalance();
 
-        boolean success = transactionManager.withdraw(accountNumber, amount);
-
-        if (!success) {
+        Hold hold;
+        try {
+            hold = transactionManager.placeHold(accountNumber, TransactionType.WITHDRAWAL, Money.toCents(amount));
+        } catch (RuntimeException e) {
             if (account instanceof SavingsAccount) {
                 print("Withdrawal failed. Insufficient funds.");
             } else {
@@ -70,16 +62,11 @@ public class TransactionProcessHandler {
             pressEnterToContinue();
             return;
         }
-        Transaction transaction = transactionManager.getLastTransaction(accountNumber);
 
-        if (transaction != null) {
-            transaction.displayTransactionDetails(previousBalance);
-        } else {
-            print("Transaction details unavailable.");
-        }
+        hold.displayHoldDetails(previousBalance);
         print(" ");
         boolean confirmed = readConfirmation("Confirm transaction?");
-        handleTransactionConfirmation(confirmed, account, previousBalance, captureTransactions(accountNumber));
+        handleTransactionConfirmation(confirmed, hold);
         pressEnterToContinue();
 
     }
@@ -107,18 +94,12 @@ public class TransactionProcessHandler {
         double fromPreviousBalance = fromAccount.getBalance();
         double toPreviousBalance = toAccount.getBalance();
 
-        transactionManager.transfer(fromAccountNumber, toAccountNumber, amount);
-        Transaction fromTransaction = transactionManager.getLastTransaction(fromAccountNumber);
-        Transaction toTransaction = transactionManager.getLastTransaction(toAccountNumber);
-
-        if (fromTransaction != null) {
-            fromTransaction.displayTransactionDetails(fromPreviousBalance);
-        } else {
-            print("Transaction details unavailable.");
-        }
+        Hold hold = transactionManager.placeTransferHold(fromAccountNumber, toAccountNumber, Money.toCents(amount));
+        hold.displayHoldDetails(fromPreviousBalance);
         print(" ");
         boolean confirmed = readConfirmation("Confirm transaction?");
         if (confirmed) {
+            transactionManager.commitHold(hold);
             print("\n✓ Transfer successful!");
             print("From Account: " + fromAccountNumber + " (Previous: $" + String.format("%.2f", fromPreviousBalance) +
                     ", New: $" + String.format("%.2f", fromAccount.getBalance()) + ")");
@@ -127,21 +108,24 @@ public class TransactionProcessHandler {
             print("Transfer Amount: $" + String.format("%.2f", amount));
         }
         else {
-            rollbackTransactions(captureTransactions(fromAccountNumber), captureTransactions(toAccountNumber), fromAccount, toAccount, fromPreviousBalance, toPreviousBalance);
-            fromAccount.setBalance(fromPreviousBalance);
-            toAccount.setBalance(toPreviousBalance);
+            // Nothing was recorded; the held amount simply returns to the source account
+            transactionManager.releaseHold(hold);
             print(" ");
             print("Transaction cancelled.");
 
 
         }
     }
-    private void handleTransactionConfirmation(boolean confirmed, Account account, double previousBalance, TransactionSnapshot snapshot) {
+    private void handleTransactionConfirmation(boolean confirmed, Hold hold) {
         if (confirmed) {
+            Transaction transaction = transactionManager.commitHold(hold);
             print(" ");
             print("✓ Transaction completed successfully!");
+            if (transaction != null) {
+                print("Transaction ID: " + transaction.getTransactionId());
+            }
         } else {
-            rollbackTransactions(snapshot, account, previousBalance);
+            transactionManager.releaseHold(hold);
             print(" ");
             print("Transaction cancelled.");
         }
@@ -149,52 +133,4 @@ public class TransactionProcessHandler {
         
     }
 
-    private TransactionSnapshot captureTransactions(String accountNumber) {
-        TransactionSnapshot snapshot = new TransactionSnapshot(accountNumber);
-        snapshot.capture(transactionManager.getTransactionsForAccount(accountNumber));
-        return snapshot;
-    }
-
-    private void rollbackTransactions(TransactionSnapshot snapshot, Account account, double previousBalance) {
-        if (snapshot == null) {
-            return;
-        }
-        snapshot.removeFrom(transactionManager, account);
-        account.setBalance(previousBalance);
-    }
-
-    private void rollbackTransactions(TransactionSnapshot fromSnapshot, TransactionSnapshot toSnapshot,
-                                      Account fromAccount, Account toAccount,
-                                      double fromBalance, double toBalance) {
-        rollbackTransactions(fromSnapshot, fromAccount, fromBalance);
-        rollbackTransactions(toSnapshot, toAccount, toBalance);
-    }
-
-    private static final class TransactionSnapshot {
-        private final String accountNumber;
-        private String latestTransactionId;
-
-        private TransactionSnapshot(String accountNumber) {
-            this.accountNumber = accountNumber;
-        }
-
-        private void capture(java.util.List<Transaction> transactions) {
-            if (transactions == null || transactions.isEmpty()) {
-                return;
-            }
-            Transaction latest = transactions.get(transactions.size() - 1);
-            if (latest != null && accountNumber.equals(latest.getAccountNumber())) {
-                this.latestTransactionId = latest.getTransactionId();
-            }
-        }
-
-        private void removeFrom(TransactionManager manager, Account account) {
-            if (latestTransactionId == null) {
-                return;
-            }
-            manager.removeTransaction(latestTransactionId);
-            account.removeTransactionById(latestTransactionId);
-        }
-    }
-
 }
@@ -0,0 +1,252 @@
+package com.bank.system.server;
+
+import com.bank.system.enums.TransactionResult;
+import com.bank.system.models.Account;
+import com.bank.system.models.AppliedOperation;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.Customer;
+import com.bank.system.models.PremiumCustomer;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.models.SavingsAccount;
+import com.bank.system.models.StatementQuery;
+import com.bank.system.processes.AccountProcessHandler;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.StatementGenerator;
+import com.bank.system.services.TransactionManager;
+import com.bank.system.utils.Money;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Headless HTTP front-end; every request runs on its own virtual thread.
+// Parameters are read from the query string or a form-encoded body; responses are plain text.
+//
+//   POST /accounts                   name, age, contact, address, customerType (regular|premium),
+//                                    accountType (savings|checking), deposit  -> account number
+//   POST /accounts/{number}/deposit  amount                                  -> new balance
+//   POST /accounts/{number}/withdraw amount                                  -> new balance
+//   POST /transfers                  from, to, amount                        -> source balance
+//   GET  /accounts/{number}/statement                                        -> statement text
+//        optional cursor, limit, from, to (epoch millis): streamed page, oldest first
+public class BankHttpServer {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int CONNECTION_BACKLOG = 1024;
+
+    private final AccountManager accountManager;
+    private final TransactionManager transactionManager;
+    private final StatementGenerator statementGenerator;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public BankHttpServer(AccountManager accountManager, TransactionManager transactionManager,
+                          StatementGenerator statementGenerator) {
+        this.accountManager = accountManager;
+        this.transactionManager = transactionManager;
+        this.statementGenerator = statementGenerator;
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), CONNECTION_BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/accounts", this::handleAccounts);
+        server.createContext("/transfers", this::handleTransfers);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Stops accepting requests and waits up to the delay for in-flight ones to finish
+    public void stop(int delaySeconds) {
+        if (server != null) {
+            server.stop(delaySeconds);
+            executor.close();
+        }
+    }
+
+    private void handleAccounts(HttpExchange exchange) throws IOException {
+        try {
+            // "/accounts" or "/accounts/{number}/{action}"
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            if (path.length == 2 && method.equals("POST")) {
+                createAccount(exchange, readParameters(exchange));
+            } else if (path.length == 4) {
+                Account account = accountManager.getAccount(path[2]);
+                if (account == null) {
+                    respond(exchange, 404, "Error: Account not found: " + path[2]);
+                    return;
+                }
+                switch (method + " " + path[3]) {
+                    case "POST deposit" -> {
+                        long amountCents = amountCents(readParameters(exchange), "amount");
+                        respondResult(exchange, account, amountCents,
+                                transactionManager.applyDepositCents(path[2], amountCents));
+                    }
+                    case "POST withdraw" -> {
+                        long amountCents = amountCents(readParameters(exchange), "amount");
+                        respondResult(exchange, account, amountCents,
+                                transactionManager.applyWithdrawalCents(path[2], amountCents));
+                    }
+                    case "GET statement" -> respondStatement(exchange, path[2], readParameters(exchange));
+                    default -> respond(exchange, 404, "Error: Unknown operation: " + method + " " + path[3]);
+                }
+            } else {
+                respond(exchange, 404, "Error: Unknown resource: " + exchange.getRequestURI().getPath());
+            }
+        } catch (RuntimeException e) {
+            respondError(exchange, e);
+        }
+    }
+
+    private void handleTransfers(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "Error: Use POST for transfers.");
+                return;
+            }
+            Map<String, String> parameters = readParameters(exchange);
+            String from = required(parameters, "from");
+            String to = required(parameters, "to");
+            long amountCents = amountCents(parameters, "amount");
+            AppliedOperation applied = transactionManager.applyTransferCents(from, to, amountCents);
+            if (applied.result() == TransactionResult.ACCOUNT_NOT_FOUND) {
+                respond(exchange, 404, "Error: Account not found: " + (accountManager.accountExists(from) ? to : from));
+                return;
+            }
+            respondResult(exchange, accountManager.getAccount(from), amountCents, applied);
+        } catch (RuntimeException e) {
+            respondError(exchange, e);
+        }
+    }
+
+    // Applies the same rules as the console account creation flow
+    private void createAccount(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        String name = required(parameters, "name");
+        String contact = required(parameters, "contact");
+        if (name.matches(".*\\d.*") || contact.matches(".*[A-Za-z].*")) {
+            throw new IllegalArgumentException("Name cannot contain digits and contact cannot contain letters.");
+        }
+        int age = Integer.parseInt(required(parameters, "age"));
+        if (age < 1 || age > 150) {
+            throw new IllegalArgumentException("Age must be between 1 and 150.");
+        }
+        String address = required(parameters, "address");
+        Customer customer = "premium".equalsIgnoreCase(parameters.get("customerType"))
+                ? new PremiumCustomer(name, age, contact, address)
+                : new RegularCustomer(name, age, contact, address);
+
+        double deposit = Double.parseDouble(required(parameters, "deposit"));
+        double minimum = AccountProcessHandler.minimumInitialDeposit(customer);
+        if (deposit < minimum) {
+            throw new IllegalArgumentException("Initial deposit must be at least $" + String.format("%,.0f", minimum) + ".");
+        }
+        Account account = "checking".equalsIgnoreCase(parameters.get("accountType"))
+                ? new CheckingAccount(customer, deposit)
+                : new SavingsAccount(customer, deposit);
+
+        if (transactionManager.openAccount(account, deposit)) {
+            respond(exchange, 201, account.getAccountNumber());
+        } else {
+            respond(exchange, 409, "Error: Failed to create account.");
+        }
+    }
+
+    private void respondStatement(HttpExchange exchange, String accountNumber, Map<String, String> parameters)
+            throws IOException {
+        if (parameters.isEmpty()) {
+            respond(exchange, 200, statementGenerator.generateStatement(accountNumber));
+            return;
+        }
+        StatementQuery query = new StatementQuery(
+                Integer.parseInt(parameters.getOrDefault("cursor", "0")),
+                Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(Integer.MAX_VALUE))),
+                Long.parseLong(parameters.getOrDefault("from", String.valueOf(Long.MIN_VALUE))),
+                Long.parseLong(parameters.getOrDefault("to", String.valueOf(Long.MAX_VALUE))));
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        // Length 0 selects chunked encoding, so the statement is sent as it is written
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            statementGenerator.writeStatement(accountNumber, out, query);
+        }
+    }
+
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value.trim();
+    }
+
+    private static long amountCents(Map<String, String> parameters, String name) {
+        return Money.toCents(Double.parseDouble(required(parameters, name)));
+    }
+
+    private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        parseInto(parameters, exchange.getRequestURI().getRawQuery());
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES);
+            parseInto(parameters, new String(bytes, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void parseInto(Map<String, String> parameters, String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    // The balance is the one read under the account's lock as the operation was applied, so a concurrent
+    // operation on the same account cannot show up in this response
+    private void respondBalance(HttpExchange exchange, long balanceCents) throws IOException {
+        respond(exchange, 200, Money.appendTo(new StringBuilder(), balanceCents).toString());
+    }
+
+    // A declined operation is reported from its result code; the detailed text is only built here
+    private void respondResult(HttpExchange exchange, Account account, long amountCents, AppliedOperation applied)
+            throws IOException {
+        TransactionResult result = applied.result();
+        switch (result) {
+            case OK -> respondBalance(exchange, applied.balanceAfterCents());
+            case ACCOUNT_NOT_FOUND -> respond(exchange, 404, "Error: " + result.getMessage());
+            case INVALID_AMOUNT -> respond(exchange, 400, "Error: " + result.getMessage());
+            default -> respond(exchange, 422, "Error: " + account.describeResult(result, amountCents));
+        }
+    }
+
+    private void respondError(HttpExchange exchange, RuntimeException e) throws IOException {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        respond(exchange, e instanceof IllegalArgumentException ? 400 : 422, "Error: " + cause.getMessage());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
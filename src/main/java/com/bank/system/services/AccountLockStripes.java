@@ -0,0 +1,82 @@
+package com.bank.system.services;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// A fixed pool of locks shared by all accounts; an account always maps to the same stripe
+public class AccountLockStripes {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLockStripes(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be greater than 0");
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Enough stripes that threads on different accounts rarely share one
+    public static AccountLockStripes forAvailableProcessors() {
+        return new AccountLockStripes(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    public void lock(String accountNumber) {
+        stripes[stripeIndex(accountNumber)].lock();
+    }
+
+    public void unlock(String accountNumber) {
+        stripes[stripeIndex(accountNumber)].unlock();
+    }
+
+    // Locks two accounts, always taking the lower stripe first so two transfers can never deadlock
+    public void lockBoth(String firstAccountNumber, String secondAccountNumber) {
+        int first = stripeIndex(firstAccountNumber);
+        int second = stripeIndex(secondAccountNumber);
+        if (first == second) {
+            stripes[first].lock();
+            return;
+        }
+        stripes[Math.min(first, second)].lock();
+        stripes[Math.max(first, second)].lock();
+    }
+
+    public void unlockBoth(String firstAccountNumber, String secondAccountNumber) {
+        int first = stripeIndex(firstAccountNumber);
+        int second = stripeIndex(secondAccountNumber);
+        if (first == second) {
+            stripes[first].unlock();
+            return;
+        }
+        stripes[Math.max(first, second)].unlock();
+        stripes[Math.min(first, second)].unlock();
+    }
+
+    // Locks every stripe in ascending order, the same order lockBoth uses, for reads that span all accounts
+    public void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    public void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private int stripeIndex(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -1,10 +1,17 @@
 package com.bank.system.services;
 
+import com.bank.system.events.AccountLookupEvent;
 import com.bank.system.models.Account;
+import com.bank.system.models.BankSummary;
+import com.bank.system.utils.Money;
 
 import java.util.ArrayList;
-
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 
 import static com.bank.system.utils.ConsoleFormatter.*;
@@ -12,30 +19,62 @@ import static com.bank.system.utils.ConsoleUtil.*;
 
 
 public class AccountManager {
-    private final List<Account> accounts;
+    // Below this many accounts an aggregate is computed on the calling thread
+    private static final int PARALLEL_THRESHOLD = 10_000;
 
+    // Accounts partitioned by number; each shard is locked independently
+    private final AccountShard[] shards;
+    private final int mask;
+    // Orders accounts across shards for listings
+    private final AtomicLong nextOrdinal = new AtomicLong();
+    // Running totals that every balance change of a managed account updates
+    private final BalanceGauges gauges = new BalanceGauges();
 
     public AccountManager() {
-        this.accounts = new ArrayList<>();
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public AccountManager(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be greater than 0");
+        }
+        int size = 1;
+        while (size < shardCount) {
+            size <<= 1;
+        }
+        this.shards = new AccountShard[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            shards[i] = new AccountShard();
+        }
     }
 
     // Method to add an account
     public boolean addAccount(Account account) {
         if (account != null && account.getAccountNumber() != null ) {
-            accounts.add(account);
-            return true;
+            // Counted before it becomes reachable, so no concurrent change to it is missed; a duplicate number
+            // leaves the account already managed under it untouched
+            return shardOf(account.getAccountNumber())
+                    .add(nextOrdinal.getAndIncrement(), account, gauges::accountAdded);
         }
         return false;
     }
 
     // Method to find an account by account number
     public Account findAccount(String accountNumber) {
-        for (Account acct : accounts) {
-            if (acct != null && acct.getAccountNumber().equals(accountNumber)) {
-                return acct;
-            }
+        if (accountNumber == null) {
+            return null;
         }
-        return null; // Account not found
+        AccountLookupEvent event = new AccountLookupEvent();
+        event.begin();
+        Account account = shardOf(accountNumber).get(accountNumber); // null when not found
+        event.end();
+        if (event.shouldCommit()) {
+            event.accountNumber = accountNumber;
+            event.found = account != null;
+            event.commit();
+        }
+        return account;
     }
 
     // Method to view all accounts
@@ -51,50 +90,127 @@ public class AccountManager {
         printf("%-8s | %-15s | %-9s | %-10s | %-8s%n",
                 "ACC NO", "CUSTOMER NAME", "TYPE", "BALANCE", "STATUS");
         printSeparator();
-        for (Account acct : accounts) {
+        for (Account acct : getAllAccounts()) {
             if (acct != null) {
                 acct.displayAccountDetails();
                 printSeparator();
             }
         }
 
-        printf("Total Accounts: %d%n", getTotalAccounts());
-        printf("Total Bank Balance: $%,.2f%n", getTotalBalance());
+        BankSummary summary = getSummary();
+        printf("Total Accounts: %d%n", summary.accountCount());
+        printf("Total Bank Balance: $%,.2f%n", summary.totalBalance());
         pressEnterToContinue(); // Wait for user to press Enter
     }
 
     // Method to get total balance of all accounts
     public double getTotalBalance() {
-        return accounts.stream()
-                .filter(acct -> acct != null)
-                .mapToDouble(Account::getBalance)
-                .sum();
+        return Money.toDollars(getTotalBalanceCents());
+    }
+
+    // Read from the running gauges in constant time; getSummary recomputes it from the accounts
+    public long getTotalBalanceCents() {
+        return gauges.getTotalBalanceCents();
+    }
+
+    public long getTotalBalanceCents(String accountType) {
+        return gauges.getTotalBalanceCents(accountType);
+    }
+
+    public int getAccountCount(String accountType) {
+        return gauges.getAccountCount(accountType);
+    }
+
+    // Total balance and account counts by account type and customer type, reduced across shards in parallel
+    public BankSummary getSummary() {
+        if (getTotalAccounts() < PARALLEL_THRESHOLD) {
+            BankSummary summary = BankSummary.empty();
+            for (AccountShard shard : shards) {
+                summary = summary.merge(shard.summarize());
+            }
+            return summary;
+        }
+        return ForkJoinPool.commonPool().invoke(new SummaryTask(0, shards.length));
     }
 
     public Account getAccount(String accountNumber) {
-        return accounts.stream()
-                .filter(acct -> acct.getAccountNumber().equals(accountNumber))
-                .findFirst()
-                .orElse(null);
+        return findAccount(accountNumber);
     }
 
     public boolean accountExists(String accountNumber) {
-        return accounts.stream()
-                .anyMatch(acct -> acct.getAccountNumber().equals(accountNumber));
+        return accountNumber != null && shardOf(accountNumber).contains(accountNumber);
     }
 
-   public List<Account> getAllAccounts() {
-        return accounts;
+    // All accounts in the order they were added
+    public List<Account> getAllAccounts() {
+        List<AccountShard.Entry> entries = new ArrayList<>(getTotalAccounts());
+        for (AccountShard shard : shards) {
+            entries.addAll(shard.entries());
+        }
+        entries.sort(Comparator.comparingLong(AccountShard.Entry::ordinal));
+        List<Account> ordered = new ArrayList<>(entries.size());
+        for (AccountShard.Entry entry : entries) {
+            ordered.add(entry.account());
+        }
+        return ordered;
+    }
+
+    // Every account, shard by shard in no particular order; cheaper than getAllAccounts when order does not matter
+    public void forEachAccount(Consumer<Account> action) {
+        for (AccountShard shard : shards) {
+            shard.forEach(action);
+        }
     }
 
     public boolean removeAccount(String accountNumber) {
-        return accounts.removeIf(acct -> acct.getAccountNumber().equals(accountNumber));
+        if (accountNumber == null) {
+            return false;
+        }
+        Account removed = shardOf(accountNumber).remove(accountNumber);
+        if (removed == null) {
+            return false;
+        }
+        gauges.accountRemoved(removed);
+        return true;
     }
 
     public  int getTotalAccounts() {
-        return accounts.size();
+        return gauges.getAccountCount();
+    }
+
+    public int getShardCount() {
+        return shards.length;
     }
 
+    private AccountShard shardOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    // Splits the shard range in half until one shard is left, merging summaries on the way back up
+    private final class SummaryTask extends RecursiveTask<BankSummary> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private SummaryTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BankSummary compute() {
+            if (to - from == 1) {
+                return shards[from].summarize();
+            }
+            int middle = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(from, middle);
+            left.fork();
+            BankSummary right = new SummaryTask(middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
 
     public void displayAccountDetails(Account account) {
         if (account == null) {
@@ -0,0 +1,329 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionType;
+import com.bank.system.models.Account;
+import com.bank.system.models.PostingRunReport;
+import com.bank.system.models.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Runs one system posting, such as interest, across every eligible account. Accounts are split into chunks by
+// account-number hash, so the split is the same on every attempt; worker threads claim chunks one at a time and
+// each chunk is posted, journaled and awaited as a unit. With a checkpoint file, a run that is cancelled, fails
+// or dies part-way resumes where it stopped: finished chunks are skipped, and a chunk that was in flight skips
+// accounts that already received a posting of this type since the run first started.
+public abstract class AccountPostingEngine {
+    private static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    protected final AccountManager accountManager;
+    protected final TransactionManager transactionManager;
+    private final int parallelism;
+    private final int chunkSize;
+    private volatile boolean cancelled;
+
+    protected AccountPostingEngine(AccountManager accountManager, TransactionManager transactionManager) {
+        this(accountManager, transactionManager, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    protected AccountPostingEngine(AccountManager accountManager, TransactionManager transactionManager,
+                                   int parallelism, int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be greater than 0");
+        }
+        this.accountManager = accountManager;
+        this.transactionManager = transactionManager;
+        // A single-threaded TransactionManager takes no locks, so it must only be driven from one thread
+        this.parallelism = transactionManager.getExecutionMode() == ExecutionMode.SINGLE_THREADED ? 1 : parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    protected abstract TransactionType postingType();
+
+    protected abstract boolean isEligible(Account account);
+
+    // Cents to post to the account, or 0 to skip it; called with the account's lock held
+    protected abstract long amountFor(Account account);
+
+    // Stops the current run once the chunks in progress are finished
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // Posts to every eligible account not already covered by the checkpoint (which may be null to keep no
+    // checkpoint). progress, if given, is called after each chunk. If the calling thread is interrupted the run
+    // stops like cancel() and returns an incomplete report; a worker failure is rethrown once the others stop.
+    protected PostingRunReport run(String runId, Path checkpointPath, Consumer<PostingRunReport> progress)
+            throws IOException {
+        cancelled = false;
+        long started = System.nanoTime();
+        List<Account> eligible = new ArrayList<>();
+        accountManager.forEachAccount(account -> {
+            if (isEligible(account)) {
+                eligible.add(account);
+            }
+        });
+        Checkpoint checkpoint = Checkpoint.open(checkpointPath, runId,
+                Math.max(1, (eligible.size() + chunkSize - 1) / chunkSize));
+        List<List<Account>> chunks = partition(eligible, checkpoint.chunkCount);
+        eligible.clear();
+
+        Progress state = new Progress(runId, postingType(), checkpoint.chunkCount, checkpoint.completedCount(),
+                started);
+        AtomicInteger nextChunk = new AtomicInteger();
+        int workerCount = Math.min(parallelism, checkpoint.chunkCount);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        List<Future<?>> workers = new ArrayList<>(workerCount);
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(executor.submit(() -> {
+                    int chunk;
+                    while (!cancelled && (chunk = nextChunk.getAndIncrement()) < chunks.size()) {
+                        if (!checkpoint.isCompleted(chunk)) {
+                            postChunk(chunk, chunks.get(chunk), checkpoint, state, progress);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            awaitWorkers(workers);
+        } finally {
+            executor.shutdown();
+            checkpoint.close();
+        }
+        return state.report();
+    }
+
+    private void postChunk(int chunk, List<Account> accounts, Checkpoint checkpoint, Progress state,
+                           Consumer<PostingRunReport> progress) throws IOException {
+        TransactionType type = postingType();
+        if (checkpoint.markStarted(chunk)) {
+            // An earlier attempt was part-way through this chunk and may have posted to some of its accounts
+            List<Account> remaining = new ArrayList<>(accounts.size());
+            for (Account account : accounts) {
+                if (!transactionManager.hasTransactionSince(
+                        account.getAccountNumber(), type, checkpoint.startedEpochMillis)) {
+                    remaining.add(account);
+                }
+            }
+            accounts = remaining;
+        }
+        long[] attempted = new long[1];
+        List<Transaction> posted = transactionManager.postToAccounts(accounts, type, account -> {
+            long amountCents = amountFor(account);
+            if (amountCents > 0) {
+                attempted[0]++;
+            }
+            return amountCents;
+        });
+        checkpoint.markCompleted(chunk);
+
+        long totalCents = 0L;
+        for (Transaction transaction : posted) {
+            totalCents += transaction.getAmountCents();
+        }
+        state.chunkPosted(accounts.size(), posted.size(), attempted[0] - posted.size(), totalCents);
+        if (progress != null) {
+            PostingRunReport report = state.report();
+            synchronized (progress) {
+                progress.accept(report);
+            }
+        }
+    }
+
+    private void awaitWorkers(List<Future<?>> workers) throws IOException {
+        boolean interrupted = false;
+        Throwable failure = null;
+        for (Future<?> worker : workers) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // Let the workers finish their current chunk so the checkpoint stays accurate
+                    interrupted = true;
+                    cancelled = true;
+                } catch (ExecutionException e) {
+                    cancelled = true;
+                    failure = failure == null ? e.getCause() : failure;
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof IOException ioFailure) {
+            throw ioFailure;
+        }
+        if (failure instanceof RuntimeException runtimeFailure) {
+            throw runtimeFailure;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+    }
+
+    private static List<List<Account>> partition(List<Account> accounts, int chunkCount) {
+        List<List<Account>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        for (Account account : accounts) {
+            // String.hashCode is fixed by the language spec, so a restarted JVM assigns the same chunks
+            chunks.get(Math.floorMod(account.getAccountNumber().hashCode(), chunkCount)).add(account);
+        }
+        return chunks;
+    }
+
+    // Running totals for the current attempt, shared by the workers
+    private static final class Progress {
+        private final String runId;
+        private final TransactionType type;
+        private final int chunkCount;
+        private final AtomicInteger chunksCompleted;
+        private final long startedNanos;
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder postings = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder totalCents = new LongAdder();
+
+        private Progress(String runId, TransactionType type, int chunkCount, int chunksCompleted, long startedNanos) {
+            this.runId = runId;
+            this.type = type;
+            this.chunkCount = chunkCount;
+            this.chunksCompleted = new AtomicInteger(chunksCompleted);
+            this.startedNanos = startedNanos;
+        }
+
+        private void chunkPosted(long accountCount, long postingCount, long rejectedCount, long cents) {
+            accounts.add(accountCount);
+            postings.add(postingCount);
+            rejected.add(rejectedCount);
+            totalCents.add(cents);
+            chunksCompleted.incrementAndGet();
+        }
+
+        private PostingRunReport report() {
+            return new PostingRunReport(runId, type, chunksCompleted.get(), chunkCount, accounts.sum(),
+                    postings.sum(), rejected.sum(), totalCents.sum(), System.nanoTime() - startedNanos);
+        }
+    }
+
+    // Append-only text file: a "run <id> <started epoch millis> <chunk count>" header, then "started <n>" and
+    // "done <n>" lines, each forced to disk before the chunk is posted or after its postings are durable.
+    // A checkpoint for a different run id is discarded. With no path, progress is only kept in memory.
+    private static final class Checkpoint {
+        private final FileChannel channel; // null without a checkpoint file
+        private final long startedEpochMillis;
+        private final int chunkCount;
+        private final BitSet started = new BitSet();
+        private final BitSet completed = new BitSet();
+
+        private Checkpoint(FileChannel channel, long startedEpochMillis, int chunkCount) {
+            this.channel = channel;
+            this.startedEpochMillis = startedEpochMillis;
+            this.chunkCount = chunkCount;
+        }
+
+        private static Checkpoint open(Path path, String runId, int chunkCount) throws IOException {
+            if (path == null) {
+                return new Checkpoint(null, System.currentTimeMillis(), chunkCount);
+            }
+            if (Files.exists(path)) {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                String[] header = lines.isEmpty() ? new String[0] : lines.get(0).split(" ");
+                if (header.length == 4 && header[0].equals("run") && header[1].equals(runId)) {
+                    Checkpoint resumed = new Checkpoint(FileChannel.open(path, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND), Long.parseLong(header[2]), Integer.parseInt(header[3]));
+                    for (String line : lines.subList(1, lines.size())) {
+                        resumed.restore(line);
+                    }
+                    return resumed;
+                }
+            }
+            Checkpoint fresh = new Checkpoint(FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+                    System.currentTimeMillis(), chunkCount);
+            fresh.write("run " + runId + " " + fresh.startedEpochMillis + " " + chunkCount);
+            return fresh;
+        }
+
+        // A line cut short by a crash is ignored
+        private void restore(String line) {
+            String[] parts = line.split(" ");
+            if (parts.length != 2) {
+                return;
+            }
+            try {
+                int chunk = Integer.parseInt(parts[1]);
+                if (chunk < 0 || chunk >= chunkCount) {
+                    return;
+                }
+                if (parts[0].equals("started")) {
+                    started.set(chunk);
+                } else if (parts[0].equals("done")) {
+                    completed.set(chunk);
+                }
+            } catch (NumberFormatException e) {
+                // torn write
+            }
+        }
+
+        private synchronized boolean isCompleted(int chunk) {
+            return completed.get(chunk);
+        }
+
+        private synchronized int completedCount() {
+            return completed.cardinality();
+        }
+
+        // Returns whether an earlier attempt had already started the chunk
+        private synchronized boolean markStarted(int chunk) throws IOException {
+            if (started.get(chunk)) {
+                return true;
+            }
+            started.set(chunk);
+            write("started " + chunk);
+            return false;
+        }
+
+        private synchronized void markCompleted(int chunk) throws IOException {
+            completed.set(chunk);
+            write("done " + chunk);
+        }
+
+        private void write(String line) throws IOException {
+            if (channel == null) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+
+        private void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.bank.system.services;
+
+import com.bank.system.models.Account;
+import com.bank.system.models.BankSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// One partition of AccountManager's accounts. Lookups never block; adds, removes and aggregation over the
+// shard take its lock, so a shard's membership is stable while it is summarised.
+final class AccountShard {
+    // Creation ordinal kept with each account so listings across shards can be merged in creation order
+    record Entry(long ordinal, Account account) {}
+
+    private final Map<String, Entry> accounts = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    Account get(String accountNumber) {
+        Entry entry = accounts.get(accountNumber);
+        return entry == null ? null : entry.account();
+    }
+
+    boolean contains(String accountNumber) {
+        return accounts.containsKey(accountNumber);
+    }
+
+    // beforePublish runs only when the number is free, before any other thread can look the account up
+    boolean add(long ordinal, Account account, Consumer<Account> beforePublish) {
+        lock.lock();
+        try {
+            if (accounts.containsKey(account.getAccountNumber())) {
+                return false;
+            }
+            beforePublish.accept(account);
+            accounts.put(account.getAccountNumber(), new Entry(ordinal, account));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The removed account, or null if there was none
+    Account remove(String accountNumber) {
+        lock.lock();
+        try {
+            Entry removed = accounts.remove(accountNumber);
+            return removed == null ? null : removed.account();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Weakly consistent: accounts added or removed meanwhile may or may not be seen
+    void forEach(Consumer<Account> action) {
+        for (Entry entry : accounts.values()) {
+            action.accept(entry.account());
+        }
+    }
+
+    List<Entry> entries() {
+        lock.lock();
+        try {
+            return new ArrayList<>(accounts.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    BankSummary summarize() {
+        lock.lock();
+        try {
+            long total = 0L;
+            Map<String, Integer> byType = new TreeMap<>();
+            Map<String, Integer> byCustomerType = new TreeMap<>();
+            for (Entry entry : accounts.values()) {
+                Account account = entry.account();
+                total += account.getBalanceCents();
+                byType.merge(account.getAccountType(), 1, Integer::sum);
+                byCustomerType.merge(account.getCustomer().getCustomerType(), 1, Integer::sum);
+            }
+            return new BankSummary(accounts.size(), total, byType, byCustomerType);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
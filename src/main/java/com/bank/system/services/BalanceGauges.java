@@ -0,0 +1,66 @@
+package com.bank.system.services;
+
+import com.bank.system.interfaces.BalanceListener;
+import com.bank.system.models.Account;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bank-wide balance and account-count totals, overall and per account type, kept up to date by every balance
+// change instead of recomputed by scanning. LongAdder spreads concurrent updates over cells; a read sums them.
+public class BalanceGauges implements BalanceListener {
+    private final Gauge total = new Gauge();
+    private final Map<String, Gauge> byAccountType = new ConcurrentHashMap<>();
+
+    // Starts following an account; call before the account is shared so no change is missed
+    public void accountAdded(Account account) {
+        record(account, 1, account.attachBalanceListener(this));
+    }
+
+    // Takes back exactly what this account contributed, even while updates to it are still running
+    public void accountRemoved(Account account) {
+        record(account, -1, -account.detachBalanceListener());
+    }
+
+    @Override
+    public void balanceChanged(Account account, long deltaCents) {
+        record(account, 0, deltaCents);
+    }
+
+    public long getTotalBalanceCents() {
+        return total.balanceCents.sum();
+    }
+
+    public long getTotalBalanceCents(String accountType) {
+        Gauge gauge = byAccountType.get(accountType);
+        return gauge == null ? 0L : gauge.balanceCents.sum();
+    }
+
+    public int getAccountCount() {
+        return total.accounts.intValue();
+    }
+
+    public int getAccountCount(String accountType) {
+        Gauge gauge = byAccountType.get(accountType);
+        return gauge == null ? 0 : gauge.accounts.intValue();
+    }
+
+    private void record(Account account, int accountDelta, long balanceDeltaCents) {
+        Gauge typeGauge = byAccountType.computeIfAbsent(account.getAccountType(), type -> new Gauge());
+        total.add(accountDelta, balanceDeltaCents);
+        typeGauge.add(accountDelta, balanceDeltaCents);
+    }
+
+    private static final class Gauge {
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder balanceCents = new LongAdder();
+
+        private void add(int accountDelta, long balanceDeltaCents) {
+            if (accountDelta != 0) {
+                accounts.add(accountDelta);
+            }
+            balanceCents.add(balanceDeltaCents);
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.interfaces.TransactionStore;
+import com.bank.system.models.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Struct-of-arrays transaction log: one primitive column per field, about 37 bytes a row, plus a primitive
+// sequence-to-row index of up to 24 bytes a row and a coarse time index of 16 bytes per block of rows.
+// Transaction objects are not kept; they are rebuilt from a row when read.
+// Columns grow in fixed-size chunks so appends never copy existing rows.
+// All methods synchronize on the store, trading append concurrency for footprint.
+public class ColumnarTransactionStore implements TransactionStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final byte REMOVED = -1;
+    private static final int INITIAL_INDEX_CAPACITY = 1 << 10;
+    private static final long NO_SEQUENCE = -1L; // sequences are never negative
+    private static final int TIME_BLOCK_BITS = 10;
+
+    private long[][] sequences = new long[0][];
+    private int[][] accountIds = new int[0][];
+    private byte[][] types = new byte[0][];
+    private long[][] amounts = new long[0][];
+    private long[][] balancesAfter = new long[0][];
+    private long[][] timestamps = new long[0][];
+    private int rowCount;
+    private int liveCount;
+
+    // Open-addressing map from sequence to row, kept at most half full. Ids are handed out in per-thread
+    // blocks, so rows are not in sequence order and cannot be binary-searched by sequence.
+    private long[] indexedSequences = emptyIndex(INITIAL_INDEX_CAPACITY);
+    private int[] indexedRows = new int[INITIAL_INDEX_CAPACITY];
+
+    // Rows are only nearly in time order across accounts. Per block of 1024 rows, the latest time in that block
+    // or any before it and the earliest time in that block or any after it; both only grow with the block number,
+    // so a time range is narrowed to a run of blocks by binary search.
+    private long[] latestTimeUpTo = new long[0];
+    private long[] earliestTimeFrom = new long[0];
+
+    // Each account number is stored once and referenced from rows by a dense id
+    private final Map<String, Integer> accountIdsByNumber = new HashMap<>();
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final List<AccountRows> rowsByAccount = new ArrayList<>();
+
+    @Override
+    public synchronized void append(Transaction transaction) {
+        TransactionType type = TransactionType.fromName(transaction.getType());
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown transaction type: " + transaction.getType());
+        }
+        int accountId = accountIdFor(transaction.getAccountNumber());
+        int row = rowCount;
+        ensureCapacity(row + 1);
+
+        int chunk = row >>> CHUNK_BITS;
+        int offset = row & CHUNK_MASK;
+        sequences[chunk][offset] = transaction.getSequence();
+        accountIds[chunk][offset] = accountId;
+        types[chunk][offset] = (byte) type.ordinal();
+        amounts[chunk][offset] = transaction.getAmountCents();
+        balancesAfter[chunk][offset] = transaction.getBalanceAfterCents();
+        timestamps[chunk][offset] = transaction.getEpochMillis();
+        rowCount++;
+        liveCount++;
+        indexSequence(transaction.getSequence(), row);
+        indexTime(row, transaction.getEpochMillis());
+
+        rowsByAccount.get(accountId).add(row, type, transaction.getAmountCents());
+    }
+
+    @Override
+    public synchronized Transaction find(String transactionId) {
+        int row = rowOfSequence(Transaction.parseSequence(transactionId));
+        return row < 0 ? null : materialize(row);
+    }
+
+    @Override
+    public synchronized boolean remove(Transaction transaction) {
+        AccountRows rows = rowsOf(transaction.getAccountNumber());
+        if (rows == null) {
+            return false;
+        }
+        // Rollbacks remove the newest entry, so search from the tail
+        for (int i = rows.size - 1; i >= 0; i--) {
+            int row = rows.rows[i];
+            if (sequenceAt(row) == transaction.getSequence()) {
+                TransactionType type = TransactionType.fromOrdinal(typeAt(row));
+                rows.removeAt(i, type, amountAt(row));
+                types[row >>> CHUNK_BITS][row & CHUNK_MASK] = REMOVED;
+                liveCount--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized List<Transaction> getTransactionsForAccount(String accountNumber) {
+        AccountRows rows = rowsOf(accountNumber);
+        if (rows == null) {
+            return new ArrayList<>();
+        }
+        List<Transaction> transactions = new ArrayList<>(rows.size);
+        for (int i = 0; i < rows.size; i++) {
+            transactions.add(materialize(rows.rows[i]));
+        }
+        return transactions;
+    }
+
+    @Override
+    public synchronized List<Transaction> getTransactionsForAccount(String accountNumber, int fromIndex, int limit) {
+        AccountRows rows = rowsOf(accountNumber);
+        if (rows == null) {
+            return new ArrayList<>();
+        }
+        int from = Math.min(Math.max(fromIndex, 0), rows.size);
+        int to = (int) Math.min(rows.size, (long) from + limit);
+        List<Transaction> transactions = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            transactions.add(materialize(rows.rows[i]));
+        }
+        return transactions;
+    }
+
+    @Override
+    public synchronized int firstIndexAtOrAfter(String accountNumber, long epochMillis) {
+        AccountRows rows = rowsOf(accountNumber);
+        if (rows == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = rows.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(rows.rows[mid]) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Only the blocks that can hold a time in range are scanned, and only the rows in range are materialized
+    @Override
+    public synchronized List<Transaction> getTransactionsBetween(long fromEpochMillis, long toEpochMillis) {
+        List<Transaction> transactions = new ArrayList<>();
+        if (fromEpochMillis >= toEpochMillis || rowCount == 0) {
+            return transactions;
+        }
+        int blocks = blockOf(rowCount - 1) + 1;
+        int firstRow = firstBlockWhere(latestTimeUpTo, blocks, fromEpochMillis) << TIME_BLOCK_BITS;
+        int endRow = (int) Math.min(rowCount,
+                (long) firstBlockWhere(earliestTimeFrom, blocks, toEpochMillis) << TIME_BLOCK_BITS);
+        for (int row = firstRow; row < endRow; row++) {
+            long time = timestampAt(row);
+            if (time >= fromEpochMillis && time < toEpochMillis && typeAt(row) != REMOVED) {
+                transactions.add(materialize(row));
+            }
+        }
+        transactions.sort(Transaction.CHRONOLOGICAL);
+        return transactions;
+    }
+
+    @Override
+    public synchronized Transaction getLastTransaction(String accountNumber) {
+        AccountRows rows = rowsOf(accountNumber);
+        return rows == null || rows.size == 0 ? null : materialize(rows.rows[rows.size - 1]);
+    }
+
+    @Override
+    public synchronized long getLastEpochMillis(String accountNumber) {
+        AccountRows rows = rowsOf(accountNumber);
+        return rows == null || rows.size == 0 ? Long.MIN_VALUE : timestampAt(rows.rows[rows.size - 1]);
+    }
+
+    @Override
+    public synchronized int getTransactionCount(String accountNumber) {
+        AccountRows rows = rowsOf(accountNumber);
+        return rows == null ? 0 : rows.size;
+    }
+
+    @Override
+    public synchronized int getTransactionCount(String accountNumber, TransactionType type) {
+        AccountRows rows = rowsOf(accountNumber);
+        return rows == null || type == null ? 0 : rows.counts[type.ordinal()];
+    }
+
+    @Override
+    public synchronized long getTotalAmountCents(String accountNumber, TransactionType type) {
+        AccountRows rows = rowsOf(accountNumber);
+        return rows == null || type == null ? 0L : rows.sums[type.ordinal()];
+    }
+
+    @Override
+    public synchronized long[] getTotalAmountsCents(String accountNumber) {
+        AccountRows rows = rowsOf(accountNumber);
+        return rows == null ? new long[TransactionType.count()] : rows.sums.clone();
+    }
+
+    @Override
+    public synchronized List<Transaction> getAllTransactions() {
+        List<Transaction> transactions = new ArrayList<>(liveCount);
+        for (int row = 0; row < rowCount; row++) {
+            if (typeAt(row) != REMOVED) {
+                transactions.add(materialize(row));
+            }
+        }
+        // Same order as the other stores; row order is only roughly the order of creation
+        transactions.sort(Transaction.CHRONOLOGICAL);
+        return transactions;
+    }
+
+    @Override
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    @Override
+    public boolean retainsTransactionObjects() {
+        return false;
+    }
+
+    private Transaction materialize(int row) {
+        int chunk = row >>> CHUNK_BITS;
+        int offset = row & CHUNK_MASK;
+        return new Transaction(
+                sequences[chunk][offset],
+                accountNumbers.get(accountIds[chunk][offset]),
+                TransactionType.fromOrdinal(types[chunk][offset]).name(),
+                amounts[chunk][offset],
+                balancesAfter[chunk][offset],
+                timestamps[chunk][offset]);
+    }
+
+    private int rowOfSequence(long sequence) {
+        if (sequence < 0) {
+            return -1;
+        }
+        int mask = indexedSequences.length - 1;
+        for (int slot = slotOf(sequence, mask); indexedSequences[slot] != NO_SEQUENCE; slot = (slot + 1) & mask) {
+            if (indexedSequences[slot] == sequence) {
+                int row = indexedRows[slot];
+                return typeAt(row) == REMOVED ? -1 : row;
+            }
+        }
+        return -1;
+    }
+
+    private void indexSequence(long sequence, int row) {
+        if ((long) rowCount * 2 > indexedSequences.length) {
+            long[] oldSequences = indexedSequences;
+            int[] oldRows = indexedRows;
+            indexedSequences = emptyIndex(oldSequences.length * 2);
+            indexedRows = new int[oldSequences.length * 2];
+            for (int slot = 0; slot < oldSequences.length; slot++) {
+                if (oldSequences[slot] != NO_SEQUENCE) {
+                    putIndexed(oldSequences[slot], oldRows[slot]);
+                }
+            }
+        }
+        putIndexed(sequence, row);
+    }
+
+    // A sequence appended again points at its newest row
+    private void putIndexed(long sequence, int row) {
+        int mask = indexedSequences.length - 1;
+        int slot = slotOf(sequence, mask);
+        while (indexedSequences[slot] != NO_SEQUENCE && indexedSequences[slot] != sequence) {
+            slot = (slot + 1) & mask;
+        }
+        indexedSequences[slot] = sequence;
+        indexedRows[slot] = row;
+    }
+
+    // Sequences are dense counters with the node id on top, so they are mixed before masking
+    private static int slotOf(long sequence, int mask) {
+        long mixed = sequence * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private static long[] emptyIndex(int capacity) {
+        long[] sequences = new long[capacity];
+        Arrays.fill(sequences, NO_SEQUENCE);
+        return sequences;
+    }
+
+    // A row stamped before earlier blocks' earliest times lowers them too; that walk back only happens when
+    // rows arrive out of time order, and stops at the first block already at or below the time
+    private void indexTime(int row, long epochMillis) {
+        int block = blockOf(row);
+        if (block == latestTimeUpTo.length) {
+            int capacity = Math.max(16, block * 2);
+            latestTimeUpTo = Arrays.copyOf(latestTimeUpTo, capacity);
+            earliestTimeFrom = Arrays.copyOf(earliestTimeFrom, capacity);
+        }
+        if ((row & ((1 << TIME_BLOCK_BITS) - 1)) == 0) {
+            latestTimeUpTo[block] = block == 0 ? epochMillis : Math.max(latestTimeUpTo[block - 1], epochMillis);
+            earliestTimeFrom[block] = epochMillis;
+        } else {
+            latestTimeUpTo[block] = Math.max(latestTimeUpTo[block], epochMillis);
+            earliestTimeFrom[block] = Math.min(earliestTimeFrom[block], epochMillis);
+        }
+        for (int b = block - 1; b >= 0 && earliestTimeFrom[b] > epochMillis; b--) {
+            earliestTimeFrom[b] = epochMillis;
+        }
+    }
+
+    // First of the blocks whose (non-decreasing) bound is at least epochMillis, or blocks if none is
+    private static int firstBlockWhere(long[] bounds, int blocks, long epochMillis) {
+        int low = 0;
+        int high = blocks;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int blockOf(int row) {
+        return row >>> TIME_BLOCK_BITS;
+    }
+
+    private int accountIdFor(String accountNumber) {
+        Integer existing = accountIdsByNumber.get(accountNumber);
+        if (existing != null) {
+            return existing;
+        }
+        int accountId = accountNumbers.size();
+        accountIdsByNumber.put(accountNumber, accountId);
+        accountNumbers.add(accountNumber);
+        rowsByAccount.add(new AccountRows());
+        return accountId;
+    }
+
+    private AccountRows rowsOf(String accountNumber) {
+        Integer accountId = accountNumber == null ? null : accountIdsByNumber.get(accountNumber);
+        return accountId == null ? null : rowsByAccount.get(accountId);
+    }
+
+    private void ensureCapacity(int rows) {
+        int chunksNeeded = (rows + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        if (chunksNeeded <= sequences.length) {
+            return;
+        }
+        int chunk = sequences.length;
+        sequences = Arrays.copyOf(sequences, chunksNeeded);
+        accountIds = Arrays.copyOf(accountIds, chunksNeeded);
+        types = Arrays.copyOf(types, chunksNeeded);
+        amounts = Arrays.copyOf(amounts, chunksNeeded);
+        balancesAfter = Arrays.copyOf(balancesAfter, chunksNeeded);
+        timestamps = Arrays.copyOf(timestamps, chunksNeeded);
+        for (; chunk < chunksNeeded; chunk++) {
+            sequences[chunk] = new long[CHUNK_SIZE];
+            accountIds[chunk] = new int[CHUNK_SIZE];
+            types[chunk] = new byte[CHUNK_SIZE];
+            amounts[chunk] = new long[CHUNK_SIZE];
+            balancesAfter[chunk] = new long[CHUNK_SIZE];
+            timestamps[chunk] = new long[CHUNK_SIZE];
+        }
+    }
+
+    private long sequenceAt(int row) {
+        return sequences[row >>> CHUNK_BITS][row & CHUNK_MASK];
+    }
+
+    private byte typeAt(int row) {
+        return types[row >>> CHUNK_BITS][row & CHUNK_MASK];
+    }
+
+    private long amountAt(int row) {
+        return amounts[row >>> CHUNK_BITS][row & CHUNK_MASK];
+    }
+
+    private long timestampAt(int row) {
+        return timestamps[row >>> CHUNK_BITS][row & CHUNK_MASK];
+    }
+
+    // Row numbers of one account in append order, with running count and sum per transaction type
+    private static final class AccountRows {
+        private int[] rows = new int[4];
+        private int size;
+        private final int[] counts = new int[TransactionType.count()];
+        private final long[] sums = new long[TransactionType.count()];
+
+        private void add(int row, TransactionType type, long amountCents) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+            counts[type.ordinal()]++;
+            sums[type.ordinal()] += amountCents;
+        }
+
+        private void removeAt(int index, TransactionType type, long amountCents) {
+            System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+            size--;
+            counts[type.ordinal()]--;
+            sums[type.ordinal()] -= amountCents;
+        }
+    }
+}
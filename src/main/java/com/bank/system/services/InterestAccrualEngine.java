@@ -0,0 +1,55 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.models.Account;
+import com.bank.system.models.PostingRunReport;
+import com.bank.system.models.SavingsAccount;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+// End-of-day interest for savings accounts: each positive balance earns one day of its customer's annual rate,
+// rounded to the cent and posted as an INTEREST transaction. Runs are keyed by business date, so accruing a
+// date again with the same checkpoint file posts nothing once that date has completed.
+public class InterestAccrualEngine extends AccountPostingEngine {
+    private static final int DAYS_PER_YEAR = 365;
+
+    public InterestAccrualEngine(AccountManager accountManager, TransactionManager transactionManager) {
+        super(accountManager, transactionManager);
+    }
+
+    public InterestAccrualEngine(AccountManager accountManager, TransactionManager transactionManager,
+                                 int parallelism, int chunkSize) {
+        super(accountManager, transactionManager, parallelism, chunkSize);
+    }
+
+    public PostingRunReport accrue(LocalDate businessDate, Path checkpointPath,
+                                   Consumer<PostingRunReport> progress) throws IOException {
+        return run("interest-" + businessDate, checkpointPath, progress);
+    }
+
+    // One day of interest in cents at an annual rate such as 0.035, rounded half-up
+    public static long dailyInterestCents(long balanceCents, double annualRate) {
+        if (balanceCents <= 0 || annualRate <= 0) {
+            return 0L;
+        }
+        return Math.round(balanceCents * annualRate / DAYS_PER_YEAR);
+    }
+
+    @Override
+    protected TransactionType postingType() {
+        return TransactionType.INTEREST;
+    }
+
+    @Override
+    protected boolean isEligible(Account account) {
+        return account instanceof SavingsAccount;
+    }
+
+    @Override
+    protected long amountFor(Account account) {
+        return dailyInterestCents(account.getBalanceCents(), account.getCustomer().getInterestRate());
+    }
+}
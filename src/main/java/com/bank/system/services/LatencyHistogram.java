@@ -0,0 +1,123 @@
+package com.bank.system.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram in nanoseconds with log-linear buckets, as in HdrHistogram: each power of two is
+// split into 16 equal sub-buckets, so any recorded value is reported to within 1/16 (about 6%) of its true value
+// from 1 ns up to the largest long, in fixed 960-slot arrays. The counts are striped across several arrays picked
+// by thread id, so concurrent recorders rarely increment the same slot; recording is one atomic increment and
+// never allocates, and reads sum the stripes.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // The next power of two at or above the processor count, capped at 8
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.min(8, Math.max(1, Runtime.getRuntime().availableProcessors())) * 2 - 1);
+
+    private final AtomicLongArray[] counts = new AtomicLongArray[STRIPES];
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            counts[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts[stripe()].getAndIncrement(bucketOf(value));
+        totalNanos.add(value);
+        // Only contended while a new maximum is being set
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        long count = 0L;
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                count += stripe.get(i);
+            }
+        }
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    // The value at the given percentile (0-100), reported as the top of its bucket and never above the maximum
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0L;
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long n = stripe.get(i);
+                snapshot[i] += n;
+                count += n;
+            }
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    // Starts a new interval. Each slot is cleared on its own, so a value recorded during the reset is either
+    // kept or dropped whole, but the totals may briefly disagree with the buckets.
+    public void reset() {
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0L);
+            }
+        }
+        totalNanos.reset();
+        maxNanos.set(0L);
+    }
+
+    // Mixes the thread id so that consecutively numbered threads spread across the stripes
+    private static int stripe() {
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & (STRIPES - 1);
+    }
+
+    // Values below 16 get a bucket each; above that, the top bit picks the power of two and the next four bits
+    // the sub-bucket
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.PostingRunReport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
+// Charges the monthly fee to every checking account as a FEE transaction. Premium customers are waived, and a
+// fee that would take the balance past the overdraft limit is rejected like any other debit and counted in the
+// report. Runs are keyed by month, so assessing a month again with the same checkpoint file charges nothing.
+public class MonthlyFeeEngine extends AccountPostingEngine {
+
+    public MonthlyFeeEngine(AccountManager accountManager, TransactionManager transactionManager) {
+        super(accountManager, transactionManager);
+    }
+
+    public MonthlyFeeEngine(AccountManager accountManager, TransactionManager transactionManager,
+                            int parallelism, int chunkSize) {
+        super(accountManager, transactionManager, parallelism, chunkSize);
+    }
+
+    public PostingRunReport assess(YearMonth month, Path checkpointPath,
+                                   Consumer<PostingRunReport> progress) throws IOException {
+        return run("fees-" + month, checkpointPath, progress);
+    }
+
+    @Override
+    protected TransactionType postingType() {
+        return TransactionType.FEE;
+    }
+
+    @Override
+    protected boolean isEligible(Account account) {
+        return account instanceof CheckingAccount;
+    }
+
+    @Override
+    protected long amountFor(Account account) {
+        return ((CheckingAccount) account).getMonthlyFeeCents();
+    }
+}
@@ -0,0 +1,190 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.TransactionType;
+import com.bank.system.interfaces.TransactionStore;
+import com.bank.system.models.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps every Transaction object: a global map by id and each account's history and running totals
+public class ObjectTransactionStore implements TransactionStore {
+    // Global log keyed by sequence, so the string id is never rendered to store or find a transaction
+    private final Map<Long, Transaction> allTransactions = new ConcurrentHashMap<>();
+    // Per-account history and running totals, in append order; guarded by the account's stripe
+    private final Map<String, AccountHistory> transactionsByAccount = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(Transaction transaction) {
+        allTransactions.put(transaction.getSequence(), transaction);
+        transactionsByAccount
+                .computeIfAbsent(transaction.getAccountNumber(), key -> new AccountHistory())
+                .append(transaction);
+    }
+
+    @Override
+    public Transaction find(String transactionId) {
+        long sequence = Transaction.parseSequence(transactionId);
+        return sequence < 0 ? null : allTransactions.get(sequence);
+    }
+
+    @Override
+    public boolean remove(Transaction transaction) {
+        if (allTransactions.remove(transaction.getSequence()) == null) {
+            return false;
+        }
+        AccountHistory history = historyOf(transaction.getAccountNumber());
+        if (history != null) {
+            history.remove(transaction);
+            if (history.transactions.isEmpty()) {
+                transactionsByAccount.remove(transaction.getAccountNumber());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null ? new ArrayList<>() : new ArrayList<>(history.transactions);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber, int fromIndex, int limit) {
+        AccountHistory history = historyOf(accountNumber);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        int size = history.transactions.size();
+        int from = Math.min(Math.max(fromIndex, 0), size);
+        return new ArrayList<>(history.transactions.subList(from, (int) Math.min(size, (long) from + limit)));
+    }
+
+    @Override
+    public int firstIndexAtOrAfter(String accountNumber, long epochMillis) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null ? 0 : history.firstIndexAtOrAfter(epochMillis);
+    }
+
+    // Each account's history is in time order, so two binary searches find its slice and only the slices are
+    // copied; nothing bank-wide is maintained on the write path
+    @Override
+    public List<Transaction> getTransactionsBetween(long fromEpochMillis, long toEpochMillis) {
+        List<Transaction> transactions = new ArrayList<>();
+        if (fromEpochMillis >= toEpochMillis) {
+            return transactions;
+        }
+        for (AccountHistory history : transactionsByAccount.values()) {
+            int from = history.firstIndexAtOrAfter(fromEpochMillis);
+            int to = history.firstIndexAtOrAfter(toEpochMillis);
+            transactions.addAll(history.transactions.subList(from, Math.max(from, to)));
+        }
+        return mergeSlices(transactions);
+    }
+
+    @Override
+    public Transaction getLastTransaction(String accountNumber) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null ? null : history.last();
+    }
+
+    @Override
+    public int getTransactionCount(String accountNumber) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null ? 0 : history.transactions.size();
+    }
+
+    @Override
+    public int getTransactionCount(String accountNumber, TransactionType type) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null || type == null ? 0 : history.counts[type.ordinal()];
+    }
+
+    @Override
+    public long getTotalAmountCents(String accountNumber, TransactionType type) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null || type == null ? 0L : history.sums[type.ordinal()];
+    }
+
+    @Override
+    public long[] getTotalAmountsCents(String accountNumber) {
+        AccountHistory history = historyOf(accountNumber);
+        return history == null ? new long[TransactionType.count()] : history.sums.clone();
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions() {
+        List<Transaction> transactions = new ArrayList<>(allTransactions.size());
+        for (AccountHistory history : transactionsByAccount.values()) {
+            transactions.addAll(history.transactions);
+        }
+        return mergeSlices(transactions);
+    }
+
+    @Override
+    public int size() {
+        return allTransactions.size();
+    }
+
+    private AccountHistory historyOf(String accountNumber) {
+        return accountNumber == null ? null : transactionsByAccount.get(accountNumber);
+    }
+
+    // The list is one time-ordered run per account, so the sort merges those runs rather than sorting from
+    // scratch. Same-millisecond entries of one account can sit out of sequence order (their ids come from
+    // different threads' blocks), which a plain merge of the runs would not fix.
+    private static List<Transaction> mergeSlices(List<Transaction> transactions) {
+        transactions.sort(Transaction.CHRONOLOGICAL);
+        return transactions;
+    }
+
+    // An account's history in append order, with running count and sum per transaction type
+    private static final class AccountHistory {
+        private final List<Transaction> transactions = new ArrayList<>();
+        private final int[] counts = new int[TransactionType.count()];
+        private final long[] sums = new long[TransactionType.count()];
+
+        private void append(Transaction transaction) {
+            transactions.add(transaction);
+            adjustTotals(transaction, 1);
+        }
+
+        private void remove(Transaction transaction) {
+            // Rollbacks remove the newest entry, so search from the tail
+            int index = transactions.lastIndexOf(transaction);
+            if (index >= 0) {
+                transactions.remove(index);
+                adjustTotals(transaction, -1);
+            }
+        }
+
+        private int firstIndexAtOrAfter(long epochMillis) {
+            int low = 0;
+            int high = transactions.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (transactions.get(mid).getEpochMillis() < epochMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private Transaction last() {
+            return transactions.isEmpty() ? null : transactions.get(transactions.size() - 1);
+        }
+
+        private void adjustTotals(Transaction transaction, int direction) {
+            TransactionType type = TransactionType.fromName(transaction.getType());
+            if (type == null) {
+                return;
+            }
+            counts[type.ordinal()] += direction;
+            sums[type.ordinal()] += direction * transaction.getAmountCents();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.TransactionResult;
+import com.bank.system.enums.TransactionType;
+import com.bank.system.interfaces.OperationMetricsMXBean;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+// Latency histograms and completed/declined counters for each transaction type and for statements, cheap
+// enough to stay on: recording is a clock read, a histogram increment and a LongAdder increment, with no locks
+// and no allocation. Read over JMX as com.bank.system:type=OperationMetrics once registered.
+public class OperationMetrics implements OperationMetricsMXBean {
+    public static final String OBJECT_NAME = "com.bank.system:type=OperationMetrics";
+    private static final String STATEMENT = "STATEMENT";
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[TYPES.length];
+    private final LongAdder[] completed = new LongAdder[TYPES.length];
+    private final LongAdder[] declined = new LongAdder[TYPES.length];
+    private final LatencyHistogram statementLatency = new LatencyHistogram();
+    private final LongAdder statements = new LongAdder();
+    private volatile long intervalStartEpochMillis = System.currentTimeMillis();
+
+    public OperationMetrics() {
+        for (int i = 0; i < TYPES.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            completed[i] = new LongAdder();
+            declined[i] = new LongAdder();
+        }
+    }
+
+    // Registers with the platform MBean server; a second registration under the same name is an error
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    // Counts the outcome and records the time since startedNanos (from System.nanoTime)
+    public void record(TransactionType type, TransactionResult result, long startedNanos) {
+        latencies[type.ordinal()].record(System.nanoTime() - startedNanos);
+        count(type, result);
+    }
+
+    // Counts an outcome that is not timed on its own, e.g. one operation of a batch
+    public void count(TransactionType type, TransactionResult result) {
+        (result == TransactionResult.OK ? completed : declined)[type.ordinal()].increment();
+    }
+
+    public void recordStatement(long startedNanos) {
+        statementLatency.record(System.nanoTime() - startedNanos);
+        statements.increment();
+    }
+
+    public LatencyHistogram getLatency(TransactionType type) {
+        return latencies[type.ordinal()];
+    }
+
+    public LatencyHistogram getStatementLatency() {
+        return statementLatency;
+    }
+
+    public long getCompletedCount(TransactionType type) {
+        return completed[type.ordinal()].sum();
+    }
+
+    public long getDeclinedCount(TransactionType type) {
+        return declined[type.ordinal()].sum();
+    }
+
+    @Override
+    public long getIntervalStartEpochMillis() {
+        return intervalStartEpochMillis;
+    }
+
+    @Override
+    public Map<String, Long> getCompletedCounts() {
+        Map<String, Long> counts = byType(type -> completed[type.ordinal()].sum());
+        counts.put(STATEMENT, statements.sum());
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getDeclinedCounts() {
+        return byType(type -> declined[type.ordinal()].sum());
+    }
+
+    @Override
+    public Map<String, Double> getThroughputPerSecond() {
+        double seconds = Math.max(1L, System.currentTimeMillis() - intervalStartEpochMillis) / 1000.0;
+        Map<String, Double> rates = new LinkedHashMap<>();
+        getCompletedCounts().forEach((name, count) -> rates.put(name, count / seconds));
+        return rates;
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencyMicros() {
+        return latencyMicros(histogram -> histogram.getMeanNanos());
+    }
+
+    @Override
+    public Map<String, Double> getP50LatencyMicros() {
+        return latencyMicros(histogram -> histogram.getValueAtPercentile(50));
+    }
+
+    @Override
+    public Map<String, Double> getP99LatencyMicros() {
+        return latencyMicros(histogram -> histogram.getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Double> getP999LatencyMicros() {
+        return latencyMicros(histogram -> histogram.getValueAtPercentile(99.9));
+    }
+
+    @Override
+    public Map<String, Double> getMaxLatencyMicros() {
+        return latencyMicros(histogram -> histogram.getMaxNanos());
+    }
+
+    // Ends the current interval. Operations finishing during the reset may land in either interval.
+    @Override
+    public void reset() {
+        intervalStartEpochMillis = System.currentTimeMillis();
+        for (int i = 0; i < TYPES.length; i++) {
+            latencies[i].reset();
+            completed[i].reset();
+            declined[i].reset();
+        }
+        statementLatency.reset();
+        statements.reset();
+    }
+
+    private static Map<String, Long> byType(ToLongFunction<TransactionType> value) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (TransactionType type : TYPES) {
+            values.put(type.name(), value.applyAsLong(type));
+        }
+        return values;
+    }
+
+    // Only operations that are timed and were seen this interval
+    private Map<String, Double> latencyMicros(ToDoubleFunction<LatencyHistogram> nanos) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (TransactionType type : TYPES) {
+            if (latencies[type.ordinal()].getCount() > 0) {
+                values.put(type.name(), nanos.applyAsDouble(latencies[type.ordinal()]) / 1_000.0);
+            }
+        }
+        if (statementLatency.getCount() > 0) {
+            values.put(STATEMENT, nanos.applyAsDouble(statementLatency) / 1_000.0);
+        }
+        return values;
+    }
+}
@@ -1,106 +1,279 @@
 package com.bank.system.services;
 
+import com.bank.system.enums.TransactionType;
+import com.bank.system.events.StatementEvent;
 import com.bank.system.models.*;
+import com.bank.system.utils.Money;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class StatementGenerator {
+    // Transactions fetched and written per step of a streamed statement
+    private static final int STREAM_CHUNK_SIZE = 1024;
+
     private final AccountManager accountManager;
     private final TransactionManager transactionManager;
+    private final OperationMetrics metrics;
     
     public StatementGenerator(AccountManager accountManager, TransactionManager transactionManager) {
         this.accountManager = accountManager;
         this.transactionManager = transactionManager;
+        this.metrics = transactionManager.getMetrics();
     }
     
     public String generateStatement(String accountNumber) {
+        StatementEvent event = new StatementEvent();
+        event.begin();
+        long started = System.nanoTime();
         Account account = accountManager.getAccount(accountNumber);
         if (account == null) {
             return "Error: Account not found. Please check the account number and try again.";
         }
         
         List<Transaction> transactions = transactionManager.getTransactionsForAccount(accountNumber);
-        StatementTotals totals = calculateTotals(transactions);
+        StatementTotals totals = calculateTotals(accountNumber);
 
         StringBuilder statement = new StringBuilder();
         statement.append("GENERATE ACCOUNT STATEMENT\n\n");
         statement.append("Account: ").append(account.getCustomer().getName()).append(" (");
         statement.append(account.getClass().getSimpleName()).append(")\n");
-        statement.append("Current Balance: $").append(formatAmount(account.getBalance())).append("\n\n");
+        statement.append("Current Balance: $");
+        Money.appendTo(statement, account.getBalanceCents()).append("\n\n");
 
         if (transactions.isEmpty()) {
             statement.append("No transactions found for this account.\n");
         } else {
             statement.append("Transactions:\n\n");
             
-            // Sort transactions by timestamp (newest first)
-            List<Transaction> sortedTransactions = sortTransactionsByTimestampDesc(transactions);
+            // Newest first
+            List<Transaction> sortedTransactions = newestFirst(transactions);
 
             for (Transaction transaction : sortedTransactions) {
-                String sign = isCreditTransaction(transaction) ? "+" : "-";
-                statement.append(String.format("%s | %s | %s$%.2f | $%.2f\n",
-                        transaction.getTransactionId(),
-                        transaction.getType(),
-                        sign,
-                        transaction.getAmount(),
-                        transaction.getBalanceAfter()));
-             }
+                appendTransactionLine(statement, transaction);
+            }
 
-            double netChange = totals.totalDeposits - totals.totalWithdrawals;
+            long netChange = totals.totalDeposits + totals.totalInterest - totals.totalWithdrawals - totals.totalFees;
 
             statement.append("\nSummary:\n");
-            statement.append("Total Deposits: $").append(formatAmount(totals.totalDeposits)).append("\n");
-            statement.append("Total Withdrawals: $").append(formatAmount(totals.totalWithdrawals)).append("\n");
-            statement.append("Total Received: $").append(formatAmount(totals.totalReceived)).append("\n");
-            statement.append("Total Sent: $").append(formatAmount(totals.totalSent)).append("\n");
-            statement.append("Net Change: $").append(formatAmount(netChange)).append("\n");
+            appendAmountLine(statement, "Total Deposits: $", totals.totalDeposits);
+            appendAmountLine(statement, "Total Withdrawals: $", totals.totalWithdrawals);
+            appendAmountLine(statement, "Total Received: $", totals.totalReceived);
+            appendAmountLine(statement, "Total Sent: $", totals.totalSent);
+            if (totals.totalInterest != 0) {
+                appendAmountLine(statement, "Total Interest: $", totals.totalInterest);
+            }
+            if (totals.totalFees != 0) {
+                appendAmountLine(statement, "Total Fees: $", totals.totalFees);
+            }
+            appendAmountLine(statement, "Net Change: $", netChange);
         }
         
         statement.append("\n✓ Statement generated successfully.");
-        return statement.toString();
+        String text = statement.toString();
+        metrics.recordStatement(started);
+        event.end();
+        if (event.shouldCommit()) {
+            event.accountNumber = accountNumber;
+            event.transactionCount = transactions.size();
+            event.bytes = utf8Length(text);
+            event.commit();
+        }
+        return text;
     }
 
-    private List<Transaction> sortTransactionsByTimestampDesc(List<Transaction> transactions) {
+    // Streams the part of the statement selected by the query to out, oldest first, one chunk at a time.
+    // Returns the cursor to resume from for the next page, or -1 when the history has been read to the end.
+    public int writeStatement(String accountNumber, Writer out, StatementQuery query) throws IOException {
+        StatementEvent event = new StatementEvent();
+        event.begin();
+        long started = System.nanoTime();
+        // Only measured for a recording that wants the event
+        boolean measureBytes = event.isEnabled();
+        long bytes = 0L;
+        Account account = accountManager.getAccount(accountNumber);
+        if (account == null) {
+            out.write("Error: Account not found. Please check the account number and try again.\n");
+            return -1;
+        }
+
+        StringBuilder chunk = new StringBuilder(STREAM_CHUNK_SIZE * 48);
+        chunk.append("ACCOUNT STATEMENT\n\n");
+        chunk.append("Account: ").append(account.getAccountNumber()).append(" - ")
+                .append(account.getCustomer().getName()).append(" (")
+                .append(account.getClass().getSimpleName()).append(")\n");
+        chunk.append("Current Balance: $");
+        Money.appendTo(chunk, account.getBalanceCents()).append("\n\nTransactions:\n\n");
+        bytes += writeChunk(out, chunk, measureBytes);
+
+        StatementTotals totals = new StatementTotals();
+        int written = 0;
+        int position = Math.max(query.cursor(), 0);
+        if (query.fromEpochMillis() != Long.MIN_VALUE) {
+            // History is in time order, so nothing before the window's first transaction needs reading
+            position = Math.max(position, transactionManager.getTransactionIndexAt(accountNumber, query.fromEpochMillis()));
+        }
+        boolean exhausted = false;
+        while (written < query.limit()) {
+            List<Transaction> transactions =
+                    transactionManager.getTransactionsForAccount(accountNumber, position, STREAM_CHUNK_SIZE);
+            chunk.setLength(0);
+            int used = 0;
+            boolean pastWindow = false;
+            while (used < transactions.size() && written < query.limit()) {
+                Transaction transaction = transactions.get(used);
+                if (transaction.getEpochMillis() >= query.toEpochMillis()) {
+                    // Everything after this is later still
+                    pastWindow = true;
+                    break;
+                }
+                used++;
+                if (query.covers(transaction.getEpochMillis())) {
+                    chunk.append(transaction.getTimestamp()).append(" | ");
+                    appendTransactionLine(chunk, transaction);
+                    totals.add(transaction);
+                    written++;
+                }
+            }
+            position += used;
+            bytes += writeChunk(out, chunk, measureBytes);
+            if (pastWindow || (transactions.size() < STREAM_CHUNK_SIZE && used == transactions.size())) {
+                exhausted = true;
+                break;
+            }
+        }
+
+        chunk.setLength(0);
+        if (written == 0) {
+            chunk.append("No transactions found for this selection.\n");
+        }
+        chunk.append("\nPage Summary (").append(written).append(" transactions):\n");
+        appendAmountLine(chunk, "Deposits: $", totals.totalDeposits);
+        appendAmountLine(chunk, "Withdrawals: $", totals.totalWithdrawals);
+        appendAmountLine(chunk, "Received: $", totals.totalReceived);
+        appendAmountLine(chunk, "Sent: $", totals.totalSent);
+        if (totals.totalInterest != 0) {
+            appendAmountLine(chunk, "Interest: $", totals.totalInterest);
+        }
+        if (totals.totalFees != 0) {
+            appendAmountLine(chunk, "Fees: $", totals.totalFees);
+        }
+        if (!exhausted) {
+            chunk.append("More transactions follow; resume from cursor ").append(position).append('\n');
+        }
+        bytes += writeChunk(out, chunk, measureBytes);
+        metrics.recordStatement(started);
+        event.end();
+        if (event.shouldCommit()) {
+            event.accountNumber = accountNumber;
+            event.transactionCount = written;
+            event.bytes = bytes;
+            event.commit();
+        }
+        return exhausted ? -1 : position;
+    }
+
+    // Returns the chunk's UTF-8 size when measuring, otherwise 0
+    private static long writeChunk(Writer out, StringBuilder chunk, boolean measureBytes) throws IOException {
+        out.append(chunk);
+        return measureBytes ? utf8Length(chunk) : 0L;
+    }
+
+    private static long utf8Length(CharSequence text) {
+        long bytes = 0L;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    public int writeStatement(String accountNumber, OutputStream out, StatementQuery query) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int nextCursor = writeStatement(accountNumber, writer, query);
+        writer.flush();
+        return nextCursor;
+    }
+
+    // The history is kept in creation order, which is also time order, so it is reversed rather than sorted:
+    // sequences are not creation order across threads and would misorder entries within a millisecond
+    private List<Transaction> newestFirst(List<Transaction> transactions) {
         List<Transaction> sortedTransactions = new ArrayList<>(transactions);
-        sortedTransactions.sort((t1, t2) -> t2.getTimestamp().compareTo(t1.getTimestamp()));
+        Collections.reverse(sortedTransactions);
         return sortedTransactions;
     }
 
     private boolean isCreditTransaction(Transaction transaction) {
         String type = transaction.getType();
-        return "DEPOSIT".equalsIgnoreCase(type) || "RECEIVE".equalsIgnoreCase(type);
+        return "DEPOSIT".equalsIgnoreCase(type) || "RECEIVE".equalsIgnoreCase(type)
+                || "INTEREST".equalsIgnoreCase(type);
     }
 
-    private StatementTotals calculateTotals(List<Transaction> transactions) {
+    // Totals are maintained by TransactionManager as transactions are recorded; one call reads them all
+    // under a single lock, so they are consistent with each other
+    private StatementTotals calculateTotals(String accountNumber) {
+        long[] amounts = transactionManager.getTotalAmountsCents(accountNumber);
         StatementTotals totals = new StatementTotals();
-        for (Transaction transaction : transactions) {
-            if (transaction == null) {
-                continue;
-            }
-            String type = transaction.getType();
-            double amount = transaction.getAmount();
-            if ("DEPOSIT".equalsIgnoreCase(type)) {
-                totals.totalDeposits += amount;
-            } else if ("WITHDRAWAL".equalsIgnoreCase(type)) {
-                totals.totalWithdrawals += amount;
-            } else if ("RECEIVE".equalsIgnoreCase(type)) {
-                totals.totalReceived += amount;
-            } else if ("TRANSFER".equalsIgnoreCase(type)) {
-                totals.totalSent += amount;
-            }
-        }
+        totals.totalDeposits = amounts[TransactionType.DEPOSIT.ordinal()];
+        totals.totalWithdrawals = amounts[TransactionType.WITHDRAWAL.ordinal()];
+        totals.totalReceived = amounts[TransactionType.RECEIVE.ordinal()];
+        totals.totalSent = amounts[TransactionType.TRANSFER.ordinal()];
+        totals.totalInterest = amounts[TransactionType.INTEREST.ordinal()];
+        totals.totalFees = amounts[TransactionType.FEE.ordinal()];
         return totals;
     }
 
-    private String formatAmount(double amount) {
-        return String.format("%.2f", amount);
+    // "TXN001 | DEPOSIT | +$50.00 | $1050.00", built without format-string parsing
+    private void appendTransactionLine(StringBuilder statement, Transaction transaction) {
+        statement.append(transaction.getTransactionId())
+                .append(" | ")
+                .append(transaction.getType())
+                .append(" | ")
+                .append(isCreditTransaction(transaction) ? '+' : '-')
+                .append('$');
+        Money.appendTo(statement, transaction.getAmountCents()).append(" | $");
+        Money.appendTo(statement, transaction.getBalanceAfterCents()).append('\n');
+    }
+
+    private void appendAmountLine(StringBuilder statement, String label, long cents) {
+        statement.append(label);
+        Money.appendTo(statement, cents).append('\n');
     }
 
     private static final class StatementTotals {
-        private double totalDeposits;
-        private double totalWithdrawals;
-        private double totalReceived;
-        private double totalSent;
+        private long totalDeposits;
+        private long totalWithdrawals;
+        private long totalReceived;
+        private long totalSent;
+        private long totalInterest;
+        private long totalFees;
+
+        private void add(Transaction transaction) {
+            switch (TransactionType.fromName(transaction.getType())) {
+                case DEPOSIT -> totalDeposits += transaction.getAmountCents();
+                case WITHDRAWAL -> totalWithdrawals += transaction.getAmountCents();
+                case RECEIVE -> totalReceived += transaction.getAmountCents();
+                case TRANSFER -> totalSent += transaction.getAmountCents();
+                case INTEREST -> totalInterest += transaction.getAmountCents();
+                case FEE -> totalFees += transaction.getAmountCents();
+            }
+        }
     }
 }
\ No newline at end of file
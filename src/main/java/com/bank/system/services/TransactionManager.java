@@ -1,47 +1,131 @@
 package com.bank.system.services;
 
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionResult;
 import com.bank.system.enums.TransactionType;
+import com.bank.system.events.TransactionEvent;
 import com.bank.system.exceptions.*;
+import com.bank.system.interfaces.TransactionStore;
 import com.bank.system.models.Account;
+import com.bank.system.models.AppliedOperation;
+import com.bank.system.models.BatchOperation;
+import com.bank.system.models.BatchResult;
+import com.bank.system.models.Hold;
 import com.bank.system.models.Transaction;
+import com.bank.system.persistence.TransactionJournal;
+import com.bank.system.utils.Money;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
 
 public class TransactionManager {
-    private final List<Transaction> allTransactions;
+    // Transactions read per step when scanning an account's history back from the newest
+    private static final int HISTORY_PAGE_SIZE = 32;
+
+    // Recorded transactions and per-account running totals; per-account state is guarded by the account's stripe
+    private final TransactionStore store;
 
     private final AccountManager accountManager;
+    private final ExecutionMode executionMode;
+    private final AccountLockStripes locks; // null when single-threaded
+    private volatile TransactionJournal journal; // null when nothing is persisted
+    private final OperationMetrics metrics = new OperationMetrics();
     private int transactionCount;
 
     public TransactionManager(AccountManager accountManager) {
+        this(accountManager, ExecutionMode.SINGLE_THREADED);
+    }
+
+    public TransactionManager(AccountManager accountManager, ExecutionMode executionMode) {
+        this(accountManager, executionMode, new ObjectTransactionStore());
+    }
+
+    public TransactionManager(AccountManager accountManager, ExecutionMode executionMode, TransactionStore store) {
         this.accountManager = accountManager;
-        this.allTransactions = new ArrayList<>();
+        this.store = store;
+        this.executionMode = executionMode;
+        this.locks = executionMode == ExecutionMode.SINGLE_THREADED
+                ? null
+                : AccountLockStripes.forAvailableProcessors();
 
     }
 
-    // Method to add a transaction
+    // Method to add a transaction; it is also attached to its account when the store keeps objects
     public boolean addTransaction(Transaction transaction) {
         if (transaction == null) {
             return false;
         }
-        allTransactions.add(transaction);
+        long ticket;
+        lockAccount(transaction.getAccountNumber());
+        try {
+            store.append(transaction);
+            Account account = accountManager.getAccount(transaction.getAccountNumber());
+            if (account != null && store.retainsTransactionObjects()) {
+                account.addTransaction(transaction);
+            }
+            ticket = journalTransactions(transaction);
+        } finally {
+            unlockAccount(transaction.getAccountNumber());
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    // Registers a new account and records its opening deposit
+    public boolean openAccount(Account account, double initialDeposit) {
+        if (!accountManager.addAccount(account)) {
+            return false;
+        }
+        TransactionJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.appendAccountOpened(account);
+        }
+        // The account is already visible, so the opening deposit is stamped and recorded under its lock
+        String accountNumber = account.getAccountNumber();
+        long ticket;
+        lockAccount(accountNumber);
+        try {
+            ticket = recordAndJournal(account, createTransaction(accountNumber, TransactionType.DEPOSIT,
+                    Money.toCents(initialDeposit), account.getLedgerBalanceCents()));
+        } finally {
+            unlockAccount(accountNumber);
+        }
+        awaitDurable(ticket);
         return true;
     }
 
+    // Once attached, every recorded change is journaled and only acknowledged after it is durable
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    // Latencies and outcomes of the operations applied here, shared with the StatementGenerator built on it
+    public OperationMetrics getMetrics() {
+        return metrics;
+    }
+
     // Method to calculate total withdrawals for an account
 
     public double totalWithdrawals(String accountNumber) {
-        return sumAmountsForTypes(accountNumber, TransactionType.WITHDRAWAL);
+        return getTotalAmount(accountNumber, TransactionType.WITHDRAWAL);
     }
     public double totalTransfered(String accountNumber) {
-        return sumAmountsForTypes(accountNumber, TransactionType.TRANSFER);
+        return getTotalAmount(accountNumber, TransactionType.TRANSFER);
     }
     public double totalDeposits(String accountNumber) {
-        return sumAmountsForTypes(accountNumber, TransactionType.DEPOSIT);
+        return getTotalAmount(accountNumber, TransactionType.DEPOSIT);
     }
     public double totalReceived(String accountNumber) {
-        return sumAmountsForTypes(accountNumber, TransactionType.RECEIVE);
+        return getTotalAmount(accountNumber, TransactionType.RECEIVE);
     }
 
 
@@ -52,56 +136,78 @@ public class TransactionManager {
 
 
     public boolean deposit(String accountNumber, double amount) throws InvalidAmountException {
+        return depositCents(accountNumber, Money.toCents(amount));
+    }
+
+    public boolean depositCents(String accountNumber, long amountCents) throws InvalidAmountException {
         Account account = accountManager.getAccount(accountNumber);
         if (account == null) {
             throw new InvalidAmountException("Account not found: " + accountNumber);
         }
 
-        if (amount <= 0) {
+        if (amountCents <= 0) {
             throw new InvalidAmountException("Deposit amount must be greater than 0");
         }
 
-        boolean success = account.processTransaction(amount, TransactionType.DEPOSIT);
-        double newBalance = account.getBalance();
+        return declineIfRejected(account, applyAndRecord(account, TransactionType.DEPOSIT, amountCents).result(),
+                amountCents);
 
-        // Create and record the transaction
-        if(success) {
-            Transaction transaction = createTransaction(accountNumber, TransactionType.DEPOSIT, amount, newBalance);
-            allTransactions.add(transaction);
-            account.addTransaction(transaction);
-            return true;
-        }
-        return false;
+    }
+
+    // Non-throwing deposit for hot paths: a missing account or a decline comes back as a result code
+    public TransactionResult tryDepositCents(String accountNumber, long amountCents) {
+        return applyDepositCents(accountNumber, amountCents).result();
+    }
 
+    // As tryDepositCents, also returning the balance read under the account's lock once the deposit is applied
+    public AppliedOperation applyDepositCents(String accountNumber, long amountCents) {
+        Account account = accountManager.getAccount(accountNumber);
+        if (account == null) {
+            return AppliedOperation.declined(TransactionResult.ACCOUNT_NOT_FOUND);
+        }
+        return amountCents <= 0 ? AppliedOperation.declined(TransactionResult.INVALID_AMOUNT)
+                : applyAndRecord(account, TransactionType.DEPOSIT, amountCents);
     }
 
     public boolean withdraw(String accountNumber, double amount) throws InvalidAmountException {
+        return withdrawCents(accountNumber, Money.toCents(amount));
+    }
+
+    public boolean withdrawCents(String accountNumber, long amountCents) throws InvalidAmountException {
         Account account = accountManager.getAccount(accountNumber);
         if (account == null) {
             throw new InvalidAmountException("Account not found: " + accountNumber);
         }
 
-        if (amount <= 0) {
+        if (amountCents <= 0) {
             throw new InvalidAmountException("Withdrawal amount must be greater than 0");
         }
 
-        boolean success = account.processTransaction(amount, TransactionType.WITHDRAWAL);
-        double newBalance = account.getBalance();
+        return declineIfRejected(account, applyAndRecord(account, TransactionType.WITHDRAWAL, amountCents).result(),
+                amountCents);
 
-        if (success) {
-            // Create and record the transaction
+    }
 
-            Transaction transaction = createTransaction(accountNumber, TransactionType.WITHDRAWAL, amount, newBalance);
-            allTransactions.add(transaction);
-            account.addTransaction(transaction);
-            return true;
-        }
-        return false;
+    public TransactionResult tryWithdrawCents(String accountNumber, long amountCents) {
+        return applyWithdrawalCents(accountNumber, amountCents).result();
+    }
 
+    public AppliedOperation applyWithdrawalCents(String accountNumber, long amountCents) {
+        Account account = accountManager.getAccount(accountNumber);
+        if (account == null) {
+            return AppliedOperation.declined(TransactionResult.ACCOUNT_NOT_FOUND);
+        }
+        return amountCents <= 0 ? AppliedOperation.declined(TransactionResult.INVALID_AMOUNT)
+                : applyAndRecord(account, TransactionType.WITHDRAWAL, amountCents);
     }
 
     public boolean transfer(String fromAccountNumber, String toAccountNumber, double amount)
             throws InvalidAmountException {
+        return transferCents(fromAccountNumber, toAccountNumber, Money.toCents(amount));
+    }
+
+    public boolean transferCents(String fromAccountNumber, String toAccountNumber, long amountCents)
+            throws InvalidAmountException {
         Account fromAccount = accountManager.getAccount(fromAccountNumber);
         Account toAccount = accountManager.getAccount(toAccountNumber);
 
@@ -113,96 +219,670 @@ public class TransactionManager {
             throw new InvalidAmountException("Destination account not found: " + toAccountNumber);
         }
 
-        if (amount <= 0) {
+        if (amountCents <= 0) {
             throw new InvalidAmountException("Transfer amount must be greater than 0");
         }
 
-        // Perform withdrawal from source account
-        boolean fromSuccess =  fromAccount.processTransaction(amount, TransactionType.WITHDRAWAL);
-        double newFromBalance = fromAccount.getBalance();
-
-        // Perform deposit to destination account
+        return declineIfRejected(fromAccount, transferAndAwait(fromAccount, toAccount, amountCents).result(),
+                amountCents);
+    }
 
-        boolean toSuccess = toAccount.processTransaction(amount, TransactionType.DEPOSIT);
-        double newToBalance = toAccount.getBalance();
+    public TransactionResult tryTransferCents(String fromAccountNumber, String toAccountNumber, long amountCents) {
+        return applyTransferCents(fromAccountNumber, toAccountNumber, amountCents).result();
+    }
 
-        // Record withdrawal transaction
-        if(fromSuccess) {
-            Transaction withdrawalTransaction = createTransaction(fromAccountNumber, TransactionType.TRANSFER, amount, newFromBalance);
-            allTransactions.add(withdrawalTransaction);
-            fromAccount.addTransaction(withdrawalTransaction);
+    // The balance returned is the source account's
+    public AppliedOperation applyTransferCents(String fromAccountNumber, String toAccountNumber, long amountCents) {
+        Account fromAccount = accountManager.getAccount(fromAccountNumber);
+        Account toAccount = accountManager.getAccount(toAccountNumber);
+        if (fromAccount == null || toAccount == null) {
+            return AppliedOperation.declined(TransactionResult.ACCOUNT_NOT_FOUND);
+        }
+        if (amountCents <= 0) {
+            return AppliedOperation.declined(TransactionResult.INVALID_AMOUNT);
         }
-        // Record deposit transaction
-        if (toSuccess) {
-            Transaction depositTransaction = createTransaction(toAccountNumber, TransactionType.RECEIVE, amount, newToBalance);
-            allTransactions.add(depositTransaction);
-            toAccount.addTransaction(depositTransaction);
+        return transferAndAwait(fromAccount, toAccount, amountCents);
+    }
+
+    private AppliedOperation transferAndAwait(Account fromAccount, Account toAccount, long amountCents) {
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        long started = System.nanoTime();
+        AppliedTransfer applied = applyTransfer(fromAccount, toAccount, amountCents);
+        awaitDurable(applied.ticket());
+        operationFinished(event, TransactionType.TRANSFER, fromAccount.getAccountNumber(),
+                toAccount.getAccountNumber(), amountCents, applied.result(), started);
+        return applied.result() == TransactionResult.OK
+                ? new AppliedOperation(TransactionResult.OK, applied.sourceBalanceCents())
+                : AppliedOperation.declined(applied.result());
+    }
+
+    // The throwing API reports a decline as before: the balance rule's exception, wrapped
+    private static boolean declineIfRejected(Account account, TransactionResult result, long amountCents) {
+        if (result != TransactionResult.OK) {
+            throw new RuntimeException(account.declineException(result, amountCents));
         }
         return true;
     }
-    public List<Transaction> getTransactionsForAccount(String accountNumber) {
-        List<Transaction> accountTransactions = new ArrayList<>();
-        for (Transaction transaction : allTransactions) {
-            if (isMatchingAccount(transaction, accountNumber)) {
-                accountTransactions.add(transaction);
+
+    // Applies a batch and returns one result per operation, in submission order. Invalid entries are rejected
+    // up front. Deposits and withdrawals are grouped by account and applied in submission order with one lock
+    // and one journal record per account; transfers follow in submission order. The journal is awaited once.
+    public List<BatchResult> processBatch(List<BatchOperation> operations) {
+        BatchResult[] results = new BatchResult[operations.size()];
+        Map<String, Account> resolved = new HashMap<>();
+        Map<String, List<Integer>> byAccount = new LinkedHashMap<>();
+        List<Integer> transfers = new ArrayList<>();
+
+        for (int i = 0; i < results.length; i++) {
+            BatchOperation operation = operations.get(i);
+            String error = validateBatchOperation(operation, resolved);
+            if (error != null) {
+                results[i] = BatchResult.rejected(error);
+            } else if (operation.type() == TransactionType.TRANSFER) {
+                transfers.add(i);
+            } else {
+                byAccount.computeIfAbsent(operation.accountNumber(), k -> new ArrayList<>()).add(i);
             }
         }
-        return accountTransactions;
+
+        long ticket = 0L;
+        for (Map.Entry<String, List<Integer>> group : byAccount.entrySet()) {
+            ticket = Math.max(ticket,
+                    applyAccountGroup(resolved.get(group.getKey()), group.getValue(), operations, results));
+        }
+        for (int index : transfers) {
+            BatchOperation operation = operations.get(index);
+            AppliedTransfer applied = applyTransfer(resolved.get(operation.accountNumber()),
+                    resolved.get(operation.targetAccountNumber()), operation.amountCents());
+            ticket = Math.max(ticket, applied.ticket());
+            metrics.count(TransactionType.TRANSFER, applied.result());
+            results[index] = applied.result() == TransactionResult.OK
+                    ? BatchResult.applied(applied.sourceBalanceCents())
+                    : BatchResult.rejected(applied.result().getMessage());
+        }
+        awaitDurable(ticket);
+        return Arrays.asList(results);
     }
 
-    public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(allTransactions);
+    // Returns why the operation cannot be applied, or null; each account is looked up once per batch
+    private String validateBatchOperation(BatchOperation operation, Map<String, Account> resolved) {
+        if (operation == null || operation.type() == null) {
+            return "Missing operation";
+        }
+        if (operation.type() != TransactionType.DEPOSIT && operation.type() != TransactionType.WITHDRAWAL
+                && operation.type() != TransactionType.TRANSFER) {
+            return "Unsupported operation: " + operation.type();
+        }
+        if (operation.amountCents() <= 0) {
+            return "Amount must be greater than 0";
+        }
+        if (resolveAccount(operation.accountNumber(), resolved) == null) {
+            return "Account not found: " + operation.accountNumber();
+        }
+        if (operation.type() == TransactionType.TRANSFER
+                && resolveAccount(operation.targetAccountNumber(), resolved) == null) {
+            return "Destination account not found: " + operation.targetAccountNumber();
+        }
+        return null;
     }
 
-    public int getTotalTransactions() {
-        return allTransactions.size();
+    private Account resolveAccount(String accountNumber, Map<String, Account> resolved) {
+        if (accountNumber == null) {
+            return null;
+        }
+        Account account = resolved.get(accountNumber);
+        if (account == null) {
+            account = accountManager.getAccount(accountNumber);
+            if (account != null) {
+                resolved.put(accountNumber, account);
+            }
+        }
+        return account;
     }
-    public void removeTransaction(String transactionId) {
-        allTransactions.removeIf(transaction -> transaction.getTransactionId().equals(transactionId));
+
+    // Applies one account's deposits and withdrawals under a single lock and journals them as one record
+    private long applyAccountGroup(Account account, List<Integer> indexes,
+                                   List<BatchOperation> operations, BatchResult[] results) {
+        String accountNumber = account.getAccountNumber();
+        List<Transaction> applied = new ArrayList<>(indexes.size());
+        lockAccount(accountNumber);
+        try {
+            for (int index : indexes) {
+                BatchOperation operation = operations.get(index);
+                AppliedOperation update = account.applyTransactionCents(operation.amountCents(), operation.type());
+                metrics.count(operation.type(), update.result());
+                if (update.result() != TransactionResult.OK) {
+                    results[index] = BatchResult.rejected(update.result().getMessage());
+                    continue;
+                }
+                Transaction transaction = createTransaction(accountNumber, operation.type(),
+                        operation.amountCents(), account.ledgerBalanceAfter(update.balanceAfterCents()));
+                recordAccountTransaction(account, transaction);
+                applied.add(transaction);
+                results[index] = BatchResult.applied(update.balanceAfterCents());
+            }
+            return applied.isEmpty() ? 0L : journalTransactions(applied.toArray(new Transaction[0]));
+        } finally {
+            unlockAccount(accountNumber);
+        }
     }
-    public Transaction getLastTransaction(String accountNumber) {
-        if (allTransactions.isEmpty()) return null;
-        for (int i = allTransactions.size() - 1; i >= 0; i--) {
-            Transaction transaction = allTransactions.get(i);
-            if (isMatchingAccount(transaction, accountNumber)) {
-                return transaction;
+
+    // Reserves a deposit or withdrawal without recording anything. A withdrawal's charge leaves the available
+    // balance at once, under the usual balance rules, so nothing else can spend it; a deposit changes nothing
+    // until it is committed.
+    public Hold placeHold(String accountNumber, TransactionType type, long amountCents) throws InvalidAmountException {
+        Account account = accountManager.getAccount(accountNumber);
+        if (account == null) {
+            throw new InvalidAmountException("Account not found: " + accountNumber);
+        }
+        if (amountCents <= 0) {
+            throw new InvalidAmountException("Amount must be greater than 0");
+        }
+        if (type == TransactionType.DEPOSIT) {
+            return new Hold(type, accountNumber, null, amountCents, 0L);
+        }
+        if (type != TransactionType.WITHDRAWAL) {
+            throw new IllegalArgumentException("Unsupported hold type: " + type);
+        }
+        return new Hold(type, accountNumber, null, amountCents, holdOn(account, type, amountCents));
+    }
+
+    // Reserves a transfer: the source's charge is set aside now, the destination is credited on commit
+    public Hold placeTransferHold(String fromAccountNumber, String toAccountNumber, long amountCents)
+            throws InvalidAmountException {
+        Account fromAccount = accountManager.getAccount(fromAccountNumber);
+        if (fromAccount == null) {
+            throw new InvalidAmountException("Source account not found: " + fromAccountNumber);
+        }
+        if (!accountManager.accountExists(toAccountNumber)) {
+            throw new InvalidAmountException("Destination account not found: " + toAccountNumber);
+        }
+        if (amountCents <= 0) {
+            throw new InvalidAmountException("Transfer amount must be greater than 0");
+        }
+        return new Hold(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amountCents,
+                holdOn(fromAccount, TransactionType.TRANSFER, amountCents));
+    }
+
+    private long holdOn(Account account, TransactionType type, long amountCents) {
+        TransactionResult result;
+        lockAccount(account.getAccountNumber());
+        try {
+            result = account.tryHoldCents(amountCents);
+        } finally {
+            unlockAccount(account.getAccountNumber());
+        }
+        if (result != TransactionResult.OK) {
+            metrics.count(type, result);
+        }
+        // Same shape as a rejected withdrawal
+        declineIfRejected(account, result, amountCents);
+        return account.getWithdrawalChargeCents(amountCents);
+    }
+
+    // Records a held operation and returns its transaction (the source leg of a transfer), or null if the hold
+    // was already committed or released
+    public Transaction commitHold(Hold hold) {
+        if (!hold.settle()) {
+            return null;
+        }
+        Account account = accountManager.getAccount(hold.getAccountNumber());
+        if (account == null) {
+            throw new IllegalStateException("Account no longer exists: " + hold.getAccountNumber());
+        }
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        long started = System.nanoTime();
+        if (hold.getType() == TransactionType.TRANSFER) {
+            Transaction transaction = commitTransferHold(hold, account);
+            operationFinished(event, TransactionType.TRANSFER, hold.getAccountNumber(),
+                    hold.getTargetAccountNumber(), hold.getAmountCents(), TransactionResult.OK, started);
+            return transaction;
+        }
+        String accountNumber = hold.getAccountNumber();
+        Transaction transaction;
+        long ticket;
+        lockAccount(accountNumber);
+        try {
+            long ledgerBalanceCents;
+            if (hold.getType() == TransactionType.DEPOSIT) {
+                long balanceCents = account.applyDepositCents(hold.getAmountCents()).balanceAfterCents();
+                ledgerBalanceCents = account.ledgerBalanceAfter(balanceCents);
+            } else {
+                account.settleHeldCents(hold.getHeldCents());
+                ledgerBalanceCents = account.getLedgerBalanceCents();
             }
+            transaction = createTransaction(accountNumber, hold.getType(), hold.getAmountCents(), ledgerBalanceCents);
+            ticket = recordAndJournal(account, transaction);
+        } finally {
+            unlockAccount(accountNumber);
         }
-        return null;
+        awaitDurable(ticket);
+        operationFinished(event, hold.getType(), accountNumber, null, hold.getAmountCents(), TransactionResult.OK,
+                started);
+        return transaction;
     }
 
-    private double sumAmountsForTypes(String accountNumber, TransactionType... types) {
-        if (allTransactions.isEmpty()) return 0.0;
-        double sum = 0.0;
-        for (Transaction transaction : allTransactions) {
-            if (!isMatchingAccount(transaction, accountNumber)) {
-                continue;
+    private Transaction commitTransferHold(Hold hold, Account fromAccount) {
+        Account toAccount = accountManager.getAccount(hold.getTargetAccountNumber());
+        if (toAccount == null) {
+            // Nothing can receive the money, so it goes back to the source
+            releaseHeld(fromAccount, hold);
+            throw new IllegalStateException("Account no longer exists: " + hold.getTargetAccountNumber());
+        }
+        String fromAccountNumber = fromAccount.getAccountNumber();
+        String toAccountNumber = toAccount.getAccountNumber();
+        Transaction withdrawalTransaction;
+        long ticket;
+        lockAccounts(fromAccountNumber, toAccountNumber);
+        try {
+            // The charge already left the available balance when the hold was placed
+            fromAccount.settleHeldCents(hold.getHeldCents());
+            long toBalanceCents = toAccount.applyDepositCents(hold.getAmountCents()).balanceAfterCents();
+            withdrawalTransaction = createTransaction(fromAccountNumber, TransactionType.TRANSFER,
+                    hold.getAmountCents(), fromAccount.getLedgerBalanceCents());
+            Transaction depositTransaction = createTransaction(toAccountNumber, TransactionType.RECEIVE,
+                    hold.getAmountCents(), toAccount.ledgerBalanceAfter(toBalanceCents));
+            recordAccountTransaction(fromAccount, withdrawalTransaction);
+            recordAccountTransaction(toAccount, depositTransaction);
+            ticket = journalTransactions(withdrawalTransaction, depositTransaction);
+        } finally {
+            unlockAccounts(fromAccountNumber, toAccountNumber);
+        }
+        awaitDurable(ticket);
+        return withdrawalTransaction;
+    }
+
+    // Cancels a hold in constant time: nothing was recorded, so nothing is removed, and a withdrawal's or
+    // transfer's charge is credited back rather than the balance being reset, so concurrent updates survive.
+    // Returns false if the hold was already committed or released.
+    public boolean releaseHold(Hold hold) {
+        if (!hold.settle()) {
+            return false;
+        }
+        Account account = accountManager.getAccount(hold.getAccountNumber());
+        if (account != null) {
+            releaseHeld(account, hold);
+        }
+        return true;
+    }
+
+    private void releaseHeld(Account account, Hold hold) {
+        if (hold.getHeldCents() == 0) {
+            return;
+        }
+        lockAccount(account.getAccountNumber());
+        try {
+            account.releaseHeldCents(hold.getHeldCents());
+        } finally {
+            unlockAccount(account.getAccountNumber());
+        }
+    }
+
+    // Posts one system-generated entry of the given type to each account, e.g. interest. amountFor runs with the
+    // account's lock held and returns the cents to post, or 0 to leave the account alone; postings the balance
+    // rules reject are skipped. Everything posted is journaled as one record and awaited once.
+    public List<Transaction> postToAccounts(List<? extends Account> accounts, TransactionType type,
+                                            ToLongFunction<Account> amountFor) {
+        List<Transaction> posted = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            String accountNumber = account.getAccountNumber();
+            lockAccount(accountNumber);
+            try {
+                long amountCents = amountFor.applyAsLong(account);
+                if (amountCents <= 0) {
+                    continue;
+                }
+                // A posting the balance rules reject leaves the account unchanged
+                AppliedOperation update = account.applyTransactionCents(amountCents, type);
+                metrics.count(type, update.result());
+                if (update.result() == TransactionResult.OK) {
+                    Transaction transaction = createTransaction(accountNumber, type, amountCents,
+                            account.ledgerBalanceAfter(update.balanceAfterCents()));
+                    recordAccountTransaction(account, transaction);
+                    posted.add(transaction);
+                }
+            } finally {
+                unlockAccount(accountNumber);
             }
-            if (matchesType(transaction, types)) {
-                sum += transaction.getAmount();
+        }
+        awaitDurable(posted.isEmpty() ? 0L : journalTransactions(posted.toArray(new Transaction[0])));
+        return posted;
+    }
+
+    // Whether the account has a transaction of this type at or after the given time, read back from the newest
+    public boolean hasTransactionSince(String accountNumber, TransactionType type, long sinceEpochMillis) {
+        lockAccount(accountNumber);
+        try {
+            int end = store.getTransactionCount(accountNumber);
+            while (end > 0) {
+                int from = Math.max(0, end - HISTORY_PAGE_SIZE);
+                List<Transaction> page = store.getTransactionsForAccount(accountNumber, from, end - from);
+                for (int i = page.size() - 1; i >= 0; i--) {
+                    Transaction transaction = page.get(i);
+                    if (transaction.getEpochMillis() < sinceEpochMillis) {
+                        return false;
+                    }
+                    if (type.name().equals(transaction.getType())) {
+                        return true;
+                    }
+                }
+                end = from;
             }
+            return false;
+        } finally {
+            unlockAccount(accountNumber);
         }
-        return sum;
     }
 
-    private boolean isMatchingAccount(Transaction transaction, String accountNumber) {
-        return transaction != null && accountNumber.equals(transaction.getAccountNumber());
+    private record AppliedTransfer(TransactionResult result, long sourceBalanceCents, long ticket) {}
+
+    // Moves the money and records both legs while holding both accounts' locks; the caller awaits the ticket.
+    // A declined withdrawal leaves both accounts untouched.
+    private AppliedTransfer applyTransfer(Account fromAccount, Account toAccount, long amountCents) {
+        String fromAccountNumber = fromAccount.getAccountNumber();
+        String toAccountNumber = toAccount.getAccountNumber();
+        lockAccounts(fromAccountNumber, toAccountNumber);
+        try {
+            // Perform withdrawal from source account
+            // Lock-free operations on these accounts do not take the stripes, so each leg records the balance its
+            // own update wrote
+            AppliedOperation withdrawal = fromAccount.applyWithdrawalCents(amountCents);
+            if (withdrawal.result() != TransactionResult.OK) {
+                return new AppliedTransfer(withdrawal.result(), fromAccount.getBalanceCents(), 0L);
+            }
+
+            // Perform deposit to destination account
+            AppliedOperation deposit = toAccount.applyDepositCents(amountCents);
+
+            // Record withdrawal and deposit transactions
+            Transaction withdrawalTransaction = createTransaction(fromAccountNumber, TransactionType.TRANSFER,
+                    amountCents, fromAccount.ledgerBalanceAfter(withdrawal.balanceAfterCents()));
+            Transaction depositTransaction = createTransaction(toAccountNumber, TransactionType.RECEIVE,
+                    amountCents, toAccount.ledgerBalanceAfter(deposit.balanceAfterCents()));
+            recordAccountTransaction(fromAccount, withdrawalTransaction);
+            recordAccountTransaction(toAccount, depositTransaction);
+            return new AppliedTransfer(TransactionResult.OK, withdrawal.balanceAfterCents(),
+                    journalTransactions(withdrawalTransaction, depositTransaction));
+        } finally {
+            unlockAccounts(fromAccountNumber, toAccountNumber);
+        }
     }
 
-    private boolean matchesType(Transaction transaction, TransactionType... types) {
-        if (types == null || types.length == 0) {
-            return false;
+    // Applies a single-account deposit or withdrawal and records it with the ledger balance, which still
+    // includes charges set aside by pending holds. A decline records nothing and is returned, not thrown.
+    private AppliedOperation applyAndRecord(Account account, TransactionType type, long amountCents) {
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        long started = System.nanoTime();
+        AppliedOperation applied = applyAndAwait(account, type, amountCents);
+        operationFinished(event, type, account.getAccountNumber(), null, amountCents, applied.result(), started);
+        return applied;
+    }
+
+    private AppliedOperation applyAndAwait(Account account, TransactionType type, long amountCents) {
+        String accountNumber = account.getAccountNumber();
+        AppliedOperation update;
+        long ticket;
+        if (executionMode == ExecutionMode.LOCK_FREE) {
+            // The balance rule check and update are one compare-and-set; only the append below is locked.
+            // The entry carries the balance that compare-and-set wrote. Racing appends on one account may land
+            // out of balance order, which is why journal replay applies amounts rather than recorded balances.
+            update = account.applyTransactionCents(amountCents, type);
+            if (update.result() != TransactionResult.OK) {
+                return update;
+            }
+            lockAccount(accountNumber);
+            try {
+                ticket = recordAndJournal(account, createTransaction(accountNumber, type, amountCents,
+                        account.ledgerBalanceAfter(update.balanceAfterCents())));
+            } finally {
+                unlockAccount(accountNumber);
+            }
+        } else {
+            lockAccount(accountNumber);
+            try {
+                update = account.applyTransactionCents(amountCents, type);
+                if (update.result() != TransactionResult.OK) {
+                    return update;
+                }
+                // Create and record the transaction
+                ticket = recordAndJournal(account, createTransaction(accountNumber, type, amountCents,
+                        account.ledgerBalanceAfter(update.balanceAfterCents())));
+            } finally {
+                unlockAccount(accountNumber);
+            }
+        }
+        // Wait for the journal with no lock held so other operations can join the same sync
+        awaitDurable(ticket);
+        return update;
+    }
+
+    // Counts the outcome and, if a flight recording wants the event, fills it in and commits it. Nothing is
+    // built for the event otherwise.
+    private void operationFinished(TransactionEvent event, TransactionType type, String accountNumber,
+                                   String targetAccountNumber, long amountCents, TransactionResult result,
+                                   long startedNanos) {
+        metrics.record(type, result, startedNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = type.name();
+            event.accountNumber = accountNumber;
+            event.targetAccountNumber = targetAccountNumber;
+            event.amountCents = amountCents;
+            event.outcome = result.name();
+            event.commit();
+        }
+    }
+
+    private long recordAndJournal(Account account, Transaction transaction) {
+        recordAccountTransaction(account, transaction);
+        return journalTransactions(transaction);
+    }
+
+    // Returns the journal ticket to wait on, or 0 when nothing is journaled
+    private long journalTransactions(Transaction... transactions) {
+        TransactionJournal currentJournal = journal;
+        return currentJournal == null ? 0L : currentJournal.appendTransactions(transactions);
+    }
+
+    private void awaitDurable(long ticket) {
+        TransactionJournal currentJournal = journal;
+        if (ticket > 0 && currentJournal != null) {
+            currentJournal.awaitDurable(ticket);
+        }
+    }
+
+    private void recordAccountTransaction(Account account, Transaction transaction) {
+        store.append(transaction);
+        if (store.retainsTransactionObjects()) {
+            account.addTransaction(transaction);
         }
-        String transactionType = transaction.getType();
-        for (TransactionType type : types) {
-            if (type.name().equalsIgnoreCase(transactionType)) {
-                return true;
+    }
+
+    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+        lockAccount(accountNumber);
+        try {
+            return store.getTransactionsForAccount(accountNumber);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // One page of an account's history, so long histories can be read without copying them whole
+    public List<Transaction> getTransactionsForAccount(String accountNumber, int fromIndex, int limit) {
+        lockAccount(accountNumber);
+        try {
+            return store.getTransactionsForAccount(accountNumber, fromIndex, limit);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // The account's transactions with a time in [fromEpochMillis, toEpochMillis), oldest first. Two binary
+    // searches over the time-ordered history find the slice, and only the slice is copied.
+    public List<Transaction> getTransactionsBetween(String accountNumber, long fromEpochMillis, long toEpochMillis) {
+        lockAccount(accountNumber);
+        try {
+            int from = store.firstIndexAtOrAfter(accountNumber, fromEpochMillis);
+            int to = Math.max(from, store.firstIndexAtOrAfter(accountNumber, toEpochMillis));
+            return store.getTransactionsForAccount(accountNumber, from, to - from);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // Every account's transactions with a time in [fromEpochMillis, toEpochMillis), oldest first
+    public List<Transaction> getTransactionsBetween(long fromEpochMillis, long toEpochMillis) {
+        lockAllAccounts();
+        try {
+            return store.getTransactionsBetween(fromEpochMillis, toEpochMillis);
+        } finally {
+            unlockAllAccounts();
+        }
+    }
+
+    // Position in the account's history of its first transaction at or after epochMillis
+    public int getTransactionIndexAt(String accountNumber, long epochMillis) {
+        lockAccount(accountNumber);
+        try {
+            return store.firstIndexAtOrAfter(accountNumber, epochMillis);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // All transactions in the order they were created
+    public List<Transaction> getAllTransactions() {
+        lockAllAccounts();
+        try {
+            return store.getAllTransactions();
+        } finally {
+            unlockAllAccounts();
+        }
+    }
+
+    public int getTotalTransactions() {
+        return store.size();
+    }
+
+    // Number of transactions recorded for an account
+    public int getTransactionCount(String accountNumber) {
+        lockAccount(accountNumber);
+        try {
+            return store.getTransactionCount(accountNumber);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // Number of transactions of one type recorded for an account
+    public int getTransactionCount(String accountNumber, TransactionType type) {
+        lockAccount(accountNumber);
+        try {
+            return store.getTransactionCount(accountNumber, type);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // Sum of the amounts of one type recorded for an account
+    public double getTotalAmount(String accountNumber, TransactionType type) {
+        return Money.toDollars(getTotalAmountCents(accountNumber, type));
+    }
+
+    public long getTotalAmountCents(String accountNumber, TransactionType type) {
+        lockAccount(accountNumber);
+        try {
+            return store.getTotalAmountCents(accountNumber, type);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // Every type's total for an account, indexed by TransactionType ordinal, read under a single lock
+    public long[] getTotalAmountsCents(String accountNumber) {
+        lockAccount(accountNumber);
+        try {
+            return store.getTotalAmountsCents(accountNumber);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // Returns the removed transaction, or null if there was none with this id
+    public Transaction removeTransaction(String transactionId) {
+        Transaction transaction = store.find(transactionId);
+        if (transaction == null) {
+            return null;
+        }
+        String accountNumber = transaction.getAccountNumber();
+        long ticket = 0L;
+        boolean removed;
+        lockAccount(accountNumber);
+        try {
+            TransactionJournal currentJournal = journal;
+            removed = store.remove(transaction);
+            if (removed && currentJournal != null) {
+                ticket = currentJournal.appendTransactionRemoved(transaction);
             }
+        } finally {
+            unlockAccount(accountNumber);
+        }
+        awaitDurable(ticket);
+        return removed ? transaction : null;
+    }
+    public Transaction getLastTransaction(String accountNumber) {
+        lockAccount(accountNumber);
+        try {
+            return store.getLastTransaction(accountNumber);
+        } finally {
+            unlockAccount(accountNumber);
+        }
+    }
+
+    // Locking is a no-op in single-threaded mode
+    private void lockAccount(String accountNumber) {
+        if (locks != null && accountNumber != null) {
+            locks.lock(accountNumber);
+        }
+    }
+
+    private void unlockAccount(String accountNumber) {
+        if (locks != null && accountNumber != null) {
+            locks.unlock(accountNumber);
+        }
+    }
+
+    private void lockAccounts(String firstAccountNumber, String secondAccountNumber) {
+        if (locks != null) {
+            locks.lockBoth(firstAccountNumber, secondAccountNumber);
+        }
+    }
+
+    private void unlockAccounts(String firstAccountNumber, String secondAccountNumber) {
+        if (locks != null) {
+            locks.unlockBoth(firstAccountNumber, secondAccountNumber);
+        }
+    }
+
+    // Bank-wide reads see every account's history while no append can run
+    private void lockAllAccounts() {
+        if (locks != null) {
+            locks.lockAll();
+        }
+    }
+
+    private void unlockAllAccounts() {
+        if (locks != null) {
+            locks.unlockAll();
         }
-        return false;
     }
 
-    private Transaction createTransaction(String accountNumber, TransactionType type, double amount, double balanceAfter) {
-        return new Transaction(accountNumber, type.name(), amount, balanceAfter);
+    // Called holding the account's lock, so no other transaction of the account can be stamped in between
+    private Transaction createTransaction(String accountNumber, TransactionType type, long amountCents, long balanceAfterCents) {
+        return new Transaction(accountNumber, type.name(), amountCents, balanceAfterCents,
+                store.getLastEpochMillis(accountNumber));
     }
-}
\ No newline at end of file
+}
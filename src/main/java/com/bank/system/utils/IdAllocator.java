@@ -0,0 +1,107 @@
+package com.bank.system.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands out unique ids as primitive longs: the node id sits above a 40-bit counter, so several JVMs started
+// with different -Dbank.node.id values never collide. Each platform thread takes the counter in blocks, so the
+// shared counter is touched once per BLOCK_SIZE ids instead of on every allocation. Virtual threads are usually
+// one per request and would each strand almost a whole block, so they take single ids from the same counter.
+// Within one thread ids increase; across threads they are unique but not in creation order, so nothing should
+// order or skip records by id.
+public final class IdAllocator {
+    public static final int NODE_ID = nodeIdFromProperty();
+
+    private static final int COUNTER_BITS = 40;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final int MAX_NODE_ID = 1023;
+    private static final int BLOCK_SIZE = 1024;
+
+    private final AtomicLong nextBlockStart = new AtomicLong(1);
+    // Bumped by reserve so threads drop blocks that may overlap a restored id
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public long next() {
+        if (Thread.currentThread().isVirtual()) {
+            long id = nextBlockStart.getAndIncrement();
+            if (id > COUNTER_MASK) {
+                throw new IllegalStateException("Id counter exhausted on node " + NODE_ID);
+            }
+            return ((long) NODE_ID << COUNTER_BITS) | id;
+        }
+        Block block = blocks.get();
+        int currentGeneration = generation.get();
+        if (block.next == block.end || block.generation != currentGeneration) {
+            long start = nextBlockStart.getAndAdd(BLOCK_SIZE);
+            if (start + BLOCK_SIZE - 1 > COUNTER_MASK) {
+                throw new IllegalStateException("Id counter exhausted on node " + NODE_ID);
+            }
+            block.next = start;
+            block.end = start + BLOCK_SIZE;
+            block.generation = currentGeneration;
+        }
+        return ((long) NODE_ID << COUNTER_BITS) | block.next++;
+    }
+
+    // Keeps ids generated on this node above one that was restored, e.g. from a journal or snapshot
+    public void reserve(long id) {
+        if (id < 0 || nodeOf(id) != NODE_ID) {
+            return;
+        }
+        // The id may fall inside a block some thread holds but has not used up, so every block is dropped
+        nextBlockStart.accumulateAndGet((id & COUNTER_MASK) + 1, Math::max);
+        generation.incrementAndGet();
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id >>> COUNTER_BITS);
+    }
+
+    // "TXN007" on node 0, "TXN3-007" on node 3; node 0 keeps the original format
+    public static String render(String prefix, long id) {
+        long counter = id & COUNTER_MASK;
+        int node = nodeOf(id);
+        StringBuilder rendered = new StringBuilder(prefix.length() + 12).append(prefix);
+        if (node != 0) {
+            rendered.append(node).append('-');
+        }
+        if (counter < 100) {
+            rendered.append(counter < 10 ? "00" : "0");
+        }
+        return rendered.append(counter).toString();
+    }
+
+    // Inverse of render; -1 if the text is not an id with this prefix
+    public static long parse(String prefix, String rendered) {
+        if (rendered == null || !rendered.startsWith(prefix)) {
+            return -1;
+        }
+        String body = rendered.substring(prefix.length());
+        int separator = body.indexOf('-');
+        try {
+            long node = separator < 0 ? 0 : Long.parseLong(body.substring(0, separator));
+            long counter = Long.parseLong(body.substring(separator + 1));
+            if (node < 0 || node > MAX_NODE_ID || counter < 0 || counter > COUNTER_MASK) {
+                return -1;
+            }
+            return (node << COUNTER_BITS) | counter;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int nodeIdFromProperty() {
+        int nodeId = Integer.getInteger("bank.node.id", 0);
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("bank.node.id must be between 0 and " + MAX_NODE_ID);
+        }
+        return nodeId;
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+        private int generation;
+    }
+}
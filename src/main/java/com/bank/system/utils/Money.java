@@ -0,0 +1,51 @@
+package com.bank.system.utils;
+
+// Money is carried as a primitive long of cents; these helpers convert and render it without allocating
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100L;
+
+    private Money() {
+    }
+
+    // Converts a dollar amount (e.g. console input) to cents, rounding half-up
+    public static long toCents(double dollars) {
+        if (Double.isNaN(dollars) || Math.abs(dollars) >= Long.MAX_VALUE / (double) CENTS_PER_DOLLAR) {
+            throw new ArithmeticException("Amount out of range: " + dollars);
+        }
+        return Math.round(dollars * CENTS_PER_DOLLAR);
+    }
+
+    // Converts cents to dollars for display with printf-style formats
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+
+    // Renders cents as plain "1234.56", the same text as String.format("%.2f")
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+
+    // Appends cents as plain "1234.56" to an existing builder; no intermediate objects
+    public static StringBuilder appendTo(StringBuilder builder, long cents) {
+        long whole = cents / CENTS_PER_DOLLAR;
+        int fraction = (int) (cents % CENTS_PER_DOLLAR);
+        if (cents < 0) {
+            builder.append('-');
+            whole = -whole;
+            fraction = -fraction;
+        }
+        builder.append(whole).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction);
+    }
+}
@@ -13,8 +13,8 @@ public class ValidationUtils {
             return false;
         }
         
-        // Simple validation: should start with "ACC" followed by digits
-        return accountNumber.matches("^ACC\\d+$");
+        // "ACC" followed by digits, with a "<node>-" part for accounts opened on another node
+        return accountNumber.matches("^ACC(\\d+-)?\\d+$");
     }
     
 
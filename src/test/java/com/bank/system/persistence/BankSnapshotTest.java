@@ -0,0 +1,111 @@
+package com.bank.system.persistence;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionStoreType;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.PremiumCustomer;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.models.SavingsAccount;
+import com.bank.system.models.Transaction;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BankSnapshotTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripSkipsJournalFramesTheSnapshotCovers() throws Exception {
+        for (TransactionStoreType storeType : TransactionStoreType.values()) {
+            Path directory = folder.newFolder(storeType.name()).toPath();
+            Path journalPath = directory.resolve("bank.journal");
+            Path snapshotPath = directory.resolve("bank.snapshot");
+            AccountManager accountManager = new AccountManager();
+            TransactionManager transactionManager =
+                    new TransactionManager(accountManager, ExecutionMode.STRIPED_LOCKING, storeType.newStore());
+            Account savings = new SavingsAccount(new RegularCustomer("Alice", 30, "555-0100", "Main St"), 1_000.0);
+            Account checking = new CheckingAccount(new PremiumCustomer("Bob", 45, "555-0101", "High St"), 100.0);
+            try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+                transactionManager.setJournal(journal);
+                transactionManager.openAccount(savings, 1_000.0);
+                transactionManager.openAccount(checking, 100.0);
+                transactionManager.deposit(savings.getAccountNumber(), 50.0);
+                // The process dies after writing the snapshot but before the journal is reset
+                BankSnapshot.write(snapshotPath, accountManager, transactionManager, journal.durablePosition());
+                transactionManager.withdraw(checking.getAccountNumber(), 30.0);
+                transactionManager.transfer(savings.getAccountNumber(), checking.getAccountNumber(), 125.5);
+            }
+
+            AccountManager restoredAccounts = new AccountManager();
+            SnapshotTransactionStore store = BankSnapshot.load(snapshotPath, restoredAccounts, storeType.newStore());
+            TransactionManager restoredTransactions =
+                    new TransactionManager(restoredAccounts, ExecutionMode.STRIPED_LOCKING, store);
+            try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+                assertEquals(storeType + " frames replayed", 2,
+                        journal.replay(restoredAccounts, restoredTransactions, store.getSnapshot().getJournalPosition()));
+            }
+
+            assertSameBank(transactionManager, restoredAccounts, restoredTransactions, List.of(savings, checking));
+        }
+    }
+
+    @Test
+    public void framesAfterAResetAreNotMistakenForCoveredOnes() throws Exception {
+        Path journalPath = folder.getRoot().toPath().resolve("bank.journal");
+        Path snapshotPath = folder.getRoot().toPath().resolve("bank.snapshot");
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager);
+        Account checking = new CheckingAccount(new RegularCustomer("Carol", 52, "555-0102", "Low St"), 500.0);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            transactionManager.setJournal(journal);
+            transactionManager.openAccount(checking, 500.0);
+            for (int i = 0; i < 20; i++) {
+                transactionManager.deposit(checking.getAccountNumber(), 1.0);
+            }
+            BankSnapshot.write(snapshotPath, accountManager, transactionManager, journal.durablePosition());
+            journal.reset();
+            // Both frames end well inside the length the snapshot covers, but belong to the new generation
+            transactionManager.withdraw(checking.getAccountNumber(), 7.25);
+            transactionManager.deposit(checking.getAccountNumber(), 3.0);
+        }
+
+        AccountManager restoredAccounts = new AccountManager();
+        SnapshotTransactionStore store = BankSnapshot.load(snapshotPath, restoredAccounts,
+                TransactionStoreType.OBJECTS.newStore());
+        TransactionManager restoredTransactions =
+                new TransactionManager(restoredAccounts, ExecutionMode.SINGLE_THREADED, store);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath)) {
+            assertEquals(2, journal.replay(restoredAccounts, restoredTransactions,
+                    store.getSnapshot().getJournalPosition()));
+        }
+
+        assertSameBank(transactionManager, restoredAccounts, restoredTransactions, List.of(checking));
+    }
+
+    private static void assertSameBank(TransactionManager original, AccountManager restoredAccounts,
+                                       TransactionManager restored, List<Account> accounts) {
+        assertEquals(accounts.size(), restoredAccounts.getTotalAccounts());
+        for (Account account : accounts) {
+            String accountNumber = account.getAccountNumber();
+            assertEquals(account.getBalanceCents(), restoredAccounts.getAccount(accountNumber).getBalanceCents());
+            assertEquals(transactionIds(original, accountNumber), transactionIds(restored, accountNumber));
+            assertEquals(original.totalDeposits(accountNumber), restored.totalDeposits(accountNumber), 0.0);
+        }
+        assertEquals(original.getTotalTransactions(), restored.getTotalTransactions());
+    }
+
+    private static List<String> transactionIds(TransactionManager transactionManager, String accountNumber) {
+        return transactionManager.getTransactionsForAccount(accountNumber).stream()
+                .map(Transaction::getTransactionId)
+                .toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.bank.system.persistence;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.models.Account;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.PremiumCustomer;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.models.SavingsAccount;
+import com.bank.system.models.Transaction;
+import com.bank.system.services.AccountManager;
+import com.bank.system.services.TransactionManager;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+public class TransactionJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayAfterCrashRestoresAccountsBalancesAndHistory() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("bank.journal");
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager, ExecutionMode.STRIPED_LOCKING);
+        TransactionJournal journal = TransactionJournal.open(path);
+        transactionManager.setJournal(journal);
+
+        Account savings = new SavingsAccount(new RegularCustomer("Alice", 30, "555-0100", "Main St"), 1_000.0);
+        Account checking = new CheckingAccount(new PremiumCustomer("Bob", 45, "555-0101", "High St"), 100.0);
+        transactionManager.openAccount(savings, 1_000.0);
+        transactionManager.openAccount(checking, 100.0);
+        transactionManager.deposit(savings.getAccountNumber(), 50.0);
+        transactionManager.withdraw(checking.getAccountNumber(), 400.0);
+        transactionManager.transfer(savings.getAccountNumber(), checking.getAccountNumber(), 125.5);
+        transactionManager.deposit(checking.getAccountNumber(), 19.99);
+        Transaction removed = transactionManager.getLastTransaction(checking.getAccountNumber());
+        transactionManager.removeTransaction(removed.getTransactionId());
+        // Every acknowledged operation is durable; the process dies without a snapshot, mid-way through a frame
+        journal.close();
+        appendTornFrame(path);
+
+        AccountManager restoredAccounts = new AccountManager();
+        TransactionManager restoredTransactions = new TransactionManager(restoredAccounts);
+        try (TransactionJournal reopened = TransactionJournal.open(path)) {
+            reopened.replay(restoredAccounts, restoredTransactions);
+        }
+
+        assertEquals(2, restoredAccounts.getTotalAccounts());
+        for (Account account : List.of(savings, checking)) {
+            Account restored = restoredAccounts.getAccount(account.getAccountNumber());
+            assertNotNull(restored);
+            assertEquals(account.getAccountType(), restored.getAccountType());
+            assertEquals(account.getCustomer().getCustomerId(), restored.getCustomer().getCustomerId());
+            assertEquals(account.getBalanceCents(), restored.getBalanceCents());
+            assertEquals(transactionIds(transactionManager, account), transactionIds(restoredTransactions, account));
+        }
+        assertEquals(accountManager.getTotalBalanceCents(), restoredAccounts.getTotalBalanceCents());
+        assertFalse(transactionIds(restoredTransactions, checking).contains(removed.getTransactionId()));
+    }
+
+    @Test
+    public void tornTailIsDiscardedAndAppendsContinueAfterTheLastIntactFrame() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("bank.journal");
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager);
+        Account account = new CheckingAccount(new RegularCustomer("Carol", 52, "555-0102", "Low St"), 200.0);
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            transactionManager.setJournal(journal);
+            transactionManager.openAccount(account, 200.0);
+            transactionManager.deposit(account.getAccountNumber(), 10.0);
+        }
+        appendTornFrame(path);
+
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            AccountManager restoredAccounts = new AccountManager();
+            TransactionManager restoredTransactions = new TransactionManager(restoredAccounts);
+            journal.replay(restoredAccounts, restoredTransactions);
+            restoredTransactions.setJournal(journal);
+            restoredTransactions.deposit(account.getAccountNumber(), 5.0);
+        }
+
+        AccountManager restoredAccounts = new AccountManager();
+        TransactionManager restoredTransactions = new TransactionManager(restoredAccounts);
+        try (TransactionJournal journal = TransactionJournal.open(path)) {
+            assertEquals(4, journal.replay(restoredAccounts, restoredTransactions));
+        }
+        assertEquals(21_500L, restoredAccounts.getAccount(account.getAccountNumber()).getBalanceCents());
+        assertEquals(3, restoredTransactions.getTransactionCount(account.getAccountNumber()));
+    }
+
+    // A frame header promising more payload than was written before the crash
+    private static void appendTornFrame(Path path) throws IOException {
+        Files.write(path, new byte[]{0, 0, 0, 64, 1, 2, 3, 4, 2, 0}, StandardOpenOption.APPEND);
+    }
+
+    private static List<String> transactionIds(TransactionManager transactionManager, Account account) {
+        return transactionManager.getTransactionsForAccount(account.getAccountNumber()).stream()
+                .map(Transaction::getTransactionId)
+                .toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionResult;
+import com.bank.system.enums.TransactionType;
+import com.bank.system.models.Account;
+import com.bank.system.models.AppliedOperation;
+import com.bank.system.models.CheckingAccount;
+import com.bank.system.models.RegularCustomer;
+import com.bank.system.models.SavingsAccount;
+import com.bank.system.models.Transaction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransactionManagerConcurrencyTest {
+    private static final int ACCOUNTS = 16;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+    private static final double OPENING_BALANCE = 1_000.0;
+
+    @Test
+    public void stripedLockingPreservesTotalBalance() throws Exception {
+        assertBalancesPreserved(ExecutionMode.STRIPED_LOCKING);
+    }
+
+    @Test
+    public void lockFreePreservesTotalBalance() throws Exception {
+        assertBalancesPreserved(ExecutionMode.LOCK_FREE);
+    }
+
+    // Hot accounts on few stripes, with deposits, withdrawals and transfers racing on the same accounts
+    private void assertBalancesPreserved(ExecutionMode mode) throws Exception {
+        AccountManager accountManager = new AccountManager();
+        TransactionManager transactionManager = new TransactionManager(accountManager, mode);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            RegularCustomer customer = new RegularCustomer("Customer " + i, 30, "555-0100", "Test");
+            Account account = i % 2 == 0
+                    ? new CheckingAccount(customer, OPENING_BALANCE)
+                    : new SavingsAccount(customer, OPENING_BALANCE);
+            transactionManager.openAccount(account, OPENING_BALANCE);
+            accounts.add(account);
+        }
+        long openingTotal = accountManager.getTotalBalanceCents();
+
+        LongAdder appliedCents = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Random random = new Random(t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        Account account = accounts.get(random.nextInt(ACCOUNTS));
+                        long amountCents = 1 + random.nextInt(5_000);
+                        switch (random.nextInt(3)) {
+                            case 0 -> {
+                                AppliedOperation deposit = transactionManager.applyDepositCents(
+                                        account.getAccountNumber(), amountCents);
+                                if (deposit.result() == TransactionResult.OK) {
+                                    appliedCents.add(amountCents);
+                                }
+                            }
+                            case 1 -> {
+                                AppliedOperation withdrawal = transactionManager.applyWithdrawalCents(
+                                        account.getAccountNumber(), amountCents);
+                                if (withdrawal.result() == TransactionResult.OK) {
+                                    appliedCents.add(account.balanceEffectCents(TransactionType.WITHDRAWAL, amountCents));
+                                }
+                            }
+                            default -> {
+                                // A savings account's fee leaves the bank; the amount itself only moves
+                                AppliedOperation transfer = transactionManager.applyTransferCents(
+                                        account.getAccountNumber(),
+                                        accounts.get(random.nextInt(ACCOUNTS)).getAccountNumber(), amountCents);
+                                if (transfer.result() == TransactionResult.OK) {
+                                    appliedCents.add(account.balanceEffectCents(TransactionType.TRANSFER, amountCents)
+                                            + amountCents);
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long balanceSum = 0;
+        for (Account account : accounts) {
+            balanceSum += account.getBalanceCents();
+            assertEquals("history of " + account.getAccountNumber(),
+                    account.getBalanceCents(), historyEffectCents(transactionManager, account));
+        }
+        assertEquals(openingTotal + appliedCents.sum(), balanceSum);
+        assertEquals(balanceSum, accountManager.getTotalBalanceCents());
+    }
+
+    // Replaying an account's recorded transactions must arrive at its balance, whatever order they raced in
+    private long historyEffectCents(TransactionManager transactionManager, Account account) {
+        long effectCents = 0;
+        for (Transaction transaction : transactionManager.getTransactionsForAccount(account.getAccountNumber())) {
+            effectCents += account.balanceEffectCents(
+                    TransactionType.fromName(transaction.getType()), transaction.getAmountCents());
+        }
+        return effectCents;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.system.services;
+
+import com.bank.system.enums.ExecutionMode;
+import com.bank.system.enums.TransactionStoreType;
+import com.bank.system.models.Transaction;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransactionTimeRangeTest {
+    private static final long T = 1_700_000_000_000L;
+    private static final String A = "ACC-A";
+    private static final String B = "ACC-B";
+
+    @Test
+    public void accountRangeIncludesFromAndExcludesTo() {
+        for (TransactionStoreType storeType : TransactionStoreType.values()) {
+            TransactionManager transactionManager = recordedBank(storeType);
+            assertEquals(storeType.name(), List.of(2L, 3L),
+                    sequences(transactionManager.getTransactionsBetween(A, T, T + 1)));
+            assertEquals(storeType.name(), List.of(2L, 3L, 4L),
+                    sequences(transactionManager.getTransactionsBetween(A, T, T + 5)));
+            assertEquals(storeType.name(), List.of(1L, 2L, 3L, 4L, 5L),
+                    sequences(transactionManager.getTransactionsBetween(A, Long.MIN_VALUE, Long.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    public void emptyAndOutOfRangeWindowsReturnNothing() {
+        for (TransactionStoreType storeType : TransactionStoreType.values()) {
+            TransactionManager transactionManager = recordedBank(storeType);
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween(A, T, T));
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween(A, T + 1, T));
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween(A, T + 6, T + 100));
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween(B, T - 10, T));
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween("ACC-NONE", T, T + 10));
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween(T + 10, T + 100));
+            assertEquals(storeType.name(), List.of(), transactionManager.getTransactionsBetween(T + 5, T + 5));
+        }
+    }
+
+    @Test
+    public void bankWideRangeMergesAccountsInTimeOrder() {
+        for (TransactionStoreType storeType : TransactionStoreType.values()) {
+            TransactionManager transactionManager = recordedBank(storeType);
+            // Same-millisecond entries of different accounts are ordered by sequence
+            assertEquals(storeType.name(), List.of(2L, 3L, 6L, 4L, 7L),
+                    sequences(transactionManager.getTransactionsBetween(T, T + 5)));
+            assertEquals(storeType.name(), List.of(1L, 2L, 3L, 6L, 4L, 7L, 5L, 8L, 9L),
+                    sequences(transactionManager.getTransactionsBetween(Long.MIN_VALUE, Long.MAX_VALUE)));
+            assertEquals(storeType.name(), List.of(5L, 8L),
+                    sequences(transactionManager.getTransactionsBetween(T + 5, T + 9)));
+            assertEquals(storeType.name(), sequences(transactionManager.getAllTransactions()),
+                    sequences(transactionManager.getTransactionsBetween(Long.MIN_VALUE, Long.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    public void indexAtTimeIsTheFirstEntryAtOrAfterIt() {
+        for (TransactionStoreType storeType : TransactionStoreType.values()) {
+            TransactionManager transactionManager = recordedBank(storeType);
+            assertEquals(storeType.name(), 0, transactionManager.getTransactionIndexAt(A, Long.MIN_VALUE));
+            assertEquals(storeType.name(), 1, transactionManager.getTransactionIndexAt(A, T));
+            assertEquals(storeType.name(), 3, transactionManager.getTransactionIndexAt(A, T + 1));
+            assertEquals(storeType.name(), 4, transactionManager.getTransactionIndexAt(A, T + 2));
+            assertEquals(storeType.name(), 5, transactionManager.getTransactionIndexAt(A, T + 6));
+            assertEquals(storeType.name(), 0, transactionManager.getTransactionIndexAt("ACC-NONE", T));
+        }
+    }
+
+    @Test
+    public void removedTransactionsLeaveTheRange() {
+        for (TransactionStoreType storeType : TransactionStoreType.values()) {
+            TransactionManager transactionManager = recordedBank(storeType);
+            Transaction removed = transactionManager.getTransactionsBetween(A, T, T + 1).get(1);
+            transactionManager.removeTransaction(removed.getTransactionId());
+            assertEquals(storeType.name(), List.of(2L),
+                    sequences(transactionManager.getTransactionsBetween(A, T, T + 1)));
+            assertEquals(storeType.name(), List.of(2L, 6L),
+                    sequences(transactionManager.getTransactionsBetween(T, T + 1)));
+        }
+    }
+
+    // A: T-1, T, T, T+1, T+5 (sequences 1-5); B: T, T+2, T+5, T+9 (sequences 6-9)
+    private static TransactionManager recordedBank(TransactionStoreType storeType) {
+        TransactionManager transactionManager =
+                new TransactionManager(new AccountManager(), ExecutionMode.STRIPED_LOCKING, storeType.newStore());
+        long[] timesA = {T - 1, T, T, T + 1, T + 5};
+        long[] timesB = {T, T + 2, T + 5, T + 9};
+        long sequence = 1;
+        for (long time : timesA) {
+            transactionManager.addTransaction(new Transaction(sequence++, A, "DEPOSIT", 100, 0, time));
+        }
+        for (long time : timesB) {
+            transactionManager.addTransaction(new Transaction(sequence++, B, "DEPOSIT", 100, 0, time));
+        }
+        return transactionManager;
+    }
+
+    private static List<Long> sequences(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getSequence).toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.bank.system.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IdAllocatorTest {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 10_000;
+
+    @Test
+    public void idsAreUniqueAcrossThreads() throws Exception {
+        IdAllocator allocator = new IdAllocator();
+        Set<Long> ids = new HashSet<>();
+        for (long[] threadIds : allocateConcurrently(allocator, false, () -> { })) {
+            for (long id : threadIds) {
+                assertTrue("duplicate id " + id, ids.add(id));
+            }
+        }
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    public void idsIncreaseWithinOneThread() {
+        IdAllocator allocator = new IdAllocator();
+        long previous = allocator.next();
+        for (int i = 0; i < 3 * IDS_PER_THREAD; i++) {
+            long id = allocator.next();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void reserveMovesPastARestoredIdInsideAHeldBlock() {
+        IdAllocator allocator = new IdAllocator();
+        long first = allocator.next();
+        // Still inside the block this thread took for its first id
+        long restored = first + 10;
+        allocator.reserve(restored);
+        assertTrue(allocator.next() > restored);
+    }
+
+    @Test
+    public void reserveAppliesToEveryThreadsBlock() throws Exception {
+        IdAllocator allocator = new IdAllocator();
+        long restored = allocator.next() + 5_000;
+        // Each thread takes a block before the reserve and must drop it afterwards
+        for (long[] threadIds : allocateConcurrently(allocator, true, () -> allocator.reserve(restored))) {
+            for (long id : threadIds) {
+                assertTrue(id + " was handed out after " + restored + " was reserved", id > restored);
+            }
+        }
+    }
+
+    @Test
+    public void reserveIgnoresIdsFromOtherNodes() {
+        IdAllocator allocator = new IdAllocator();
+        long first = allocator.next();
+        int otherNode = IdAllocator.NODE_ID == 0 ? 1 : 0;
+        allocator.reserve(((long) otherNode << 40) | (first + 1_000_000));
+        assertEquals(first + 1, allocator.next());
+    }
+
+    @Test
+    public void renderedIdsParseBack() {
+        IdAllocator allocator = new IdAllocator();
+        for (int i = 0; i < 2_000; i++) {
+            long id = allocator.next();
+            assertEquals(id, IdAllocator.parse("TXN", IdAllocator.render("TXN", id)));
+        }
+        assertEquals(-1, IdAllocator.parse("TXN", "ACC001"));
+        assertEquals(-1, IdAllocator.parse("TXN", "TXNabc"));
+    }
+
+    // Each thread allocates IDS_PER_THREAD ids once betweenPhases has run; with takeBlockFirst, each has already
+    // taken one id, and so holds a block, by then
+    private static List<long[]> allocateConcurrently(IdAllocator allocator, boolean takeBlockFirst,
+                                                     Runnable betweenPhases) throws Exception {
+        CountDownLatch prepared = new CountDownLatch(THREADS);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    if (takeBlockFirst) {
+                        allocator.next();
+                    }
+                    prepared.countDown();
+                    release.await();
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = allocator.next();
+                    }
+                    return ids;
+                }));
+            }
+            prepared.await();
+            betweenPhases.run();
+            release.countDown();
+            List<long[]> results = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}